@@ -1,16 +1,25 @@
 package com.noteapp.demo.controller;
 
+import com.noteapp.demo.dto.ActivityImportResult;
 import com.noteapp.demo.dto.ActivityRequest;
 import com.noteapp.demo.dto.ActivityResponse;
+import com.noteapp.demo.dto.CursorPage;
+import com.noteapp.demo.model.ActivityFileFormat;
+import com.noteapp.demo.service.ActivityExportService;
+import com.noteapp.demo.service.ActivityImportService;
 import com.noteapp.demo.service.ActivityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
+import java.io.Reader;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -19,17 +28,60 @@ import java.util.List;
 public class ActivityController {
 
     private final ActivityService activityService;
+    private final ActivityImportService activityImportService;
+    private final ActivityExportService activityExportService;
 
     @PostMapping("/api/activities")
     public ResponseEntity<ActivityResponse> createActivity(@Valid @RequestBody ActivityRequest request) {
         return ResponseEntity.ok(activityService.createActivity(request));
     }
 
+    /**
+     * Toplu içe aktarma: text/csv (categoryId,date,durationHours) veya
+     * application/x-ndjson (satır başına bir ActivityRequest). Hatalı satırlar raporlanır.
+     */
+    @PostMapping(value = "/api/activities/import", consumes = "text/csv")
+    public ResponseEntity<ActivityImportResult> importCsv(Reader body) {
+        return ResponseEntity.ok(activityImportService.importActivities(body, ActivityFileFormat.CSV));
+    }
+
+    @PostMapping(value = "/api/activities/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ActivityImportResult> importNdjson(Reader body) {
+        return ResponseEntity.ok(activityImportService.importActivities(body, ActivityFileFormat.NDJSON));
+    }
+
+    /**
+     * Aktiviteleri tarih sırasıyla dışa aktarır; satırlar veritabanı imlecinden
+     * okunup doğrudan yanıta yazılır. Tarih aralığı verilmezse tümü.
+     */
+    @GetMapping("/api/activities/export")
+    public ResponseEntity<StreamingResponseBody> exportActivities(
+            @RequestParam(defaultValue = "CSV") ActivityFileFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"activities." + format.getExtension() + "\"")
+                .body(activityExportService.export(format, startDate, endDate));
+    }
+
     @GetMapping("/api/activities")
     public ResponseEntity<Page<ActivityResponse>> getUserActivities(Pageable pageable) {
         return ResponseEntity.ok(activityService.getUserActivities(pageable));
     }
 
+    /**
+     * Keyset sayfalama: ?limit=&cursor= (önceki yanıttaki nextCursor), includeTotal=true ise toplam sayı
+     */
+    @GetMapping(value = "/api/activities", params = "limit")
+    public ResponseEntity<CursorPage<ActivityResponse>> getUserActivitiesByCursor(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(activityService.getUserActivities(cursor, limit, includeTotal));
+    }
+
     @GetMapping("/api/activities/{id}")
     public ResponseEntity<ActivityResponse> getActivityById(@PathVariable Long id) {
         return ResponseEntity.ok(activityService.getActivityById(id));
@@ -42,6 +94,17 @@ public class ActivityController {
         return ResponseEntity.ok(activityService.getUserActivitiesByDateRange(startDate, endDate));
     }
 
+    @GetMapping(value = "/api/activities/date-range", params = "limit")
+    public ResponseEntity<CursorPage<ActivityResponse>> getActivitiesByDateRangeByCursor(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(activityService.getUserActivitiesByDateRange(
+                startDate, endDate, cursor, limit, includeTotal));
+    }
+
     @PutMapping("/api/activities/{id}")
     public ResponseEntity<ActivityResponse> updateActivity(
             @PathVariable Long id, 
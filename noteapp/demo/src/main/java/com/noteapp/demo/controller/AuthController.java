@@ -3,10 +3,13 @@ package com.noteapp.demo.controller;
 import com.noteapp.demo.dto.AuthResponse;
 import com.noteapp.demo.dto.UserProfile;
 import com.noteapp.demo.dto.LoginRequest;
+import com.noteapp.demo.dto.RefreshRequest;
 import com.noteapp.demo.dto.RegisterRequest;
 import com.noteapp.demo.model.User;
 import com.noteapp.demo.repository.UserRepository;
-import com.noteapp.demo.security.JwtUtil;
+import com.noteapp.demo.security.AuthenticatedUser;
+import com.noteapp.demo.security.CurrentUserResolver;
+import com.noteapp.demo.service.AuthTokenService;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.Response;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,8 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import org.springframework.web.client.HttpClientErrorException;
@@ -27,8 +29,9 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final AuthTokenService authTokenService;
     private final AuthenticationManager authenticationManager;
+    private final CurrentUserResolver currentUserResolver;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -58,21 +61,49 @@ public class AuthController {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .build();
         userRepository.save(user);
-        String token = jwtUtil.generateToken(user.getEmail());
-        return ResponseEntity.ok(new AuthResponse(token));
+        return ResponseEntity.ok(authTokenService.issue(AuthenticatedUser.of(user)));
     }
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request){
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
 
-        String token = jwtUtil.generateToken(request.getEmail());
-        return ResponseEntity.ok(new AuthResponse(token));
+        // Principal login sırasında zaten yüklendi; id için tekrar sorgu yok
+        return ResponseEntity.ok(authTokenService.issue((AuthenticatedUser) authentication.getPrincipal()));
+    }
+
+    /**
+     * Refresh token'ı tek kullanımlık olarak yeni bir access/refresh çiftiyle değiştirir
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authTokenService.refresh(request.getRefreshToken()));
+    }
+
+    /**
+     * Bearer token exp anına kadar, gövdede verilen refresh token ailesiyle birlikte iptal edilir
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                       @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authTokenService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Kullanıcının bütün cihazlardaki oturumlarını kapatır (tüm refresh token'lar ve geçerli access token'lar)
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll() {
+        authTokenService.revokeUser(currentUserResolver.currentUserId());
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserProfile> me(@AuthenticationPrincipal UserDetails principal) {
-        User user = userRepository.findByEmail(principal.getUsername()).orElseThrow();
+    public ResponseEntity<UserProfile> me() {
+        User user = userRepository.findById(currentUserResolver.currentUserId()).orElseThrow();
         return ResponseEntity.ok(new UserProfile(user.getId(), user.getName(), user.getEmail(), user.getCreatedAt()));
     }
 
@@ -2,6 +2,7 @@ package com.noteapp.demo.controller;
 
 import com.noteapp.demo.dto.CategoryRequest;
 import com.noteapp.demo.dto.CategoryResponse;
+import com.noteapp.demo.dto.CursorPage;
 import com.noteapp.demo.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +34,17 @@ public class CategoryController {
         return ResponseEntity.ok(categoryService.getUserCategories(pageable));
     }
 
+    /**
+     * Keyset sayfalama: ?limit=&cursor= (önceki yanıttaki nextCursor), includeTotal=true ise toplam sayı
+     */
+    @GetMapping(value = "/api/categories", params = "limit")
+    public ResponseEntity<CursorPage<CategoryResponse>> getCategoriesByCursor(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(categoryService.getUserCategories(cursor, limit, includeTotal));
+    }
+
     @DeleteMapping("/api/categories/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
         categoryService.deleteCategory(id);
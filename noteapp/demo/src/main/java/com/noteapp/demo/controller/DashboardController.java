@@ -1,8 +1,13 @@
 package com.noteapp.demo.controller;
 
 import com.noteapp.demo.dto.ActivityTrends;
+import com.noteapp.demo.dto.DailySeries;
 import com.noteapp.demo.dto.DashboardSummary;
+import com.noteapp.demo.dto.StreakInfo;
+import com.noteapp.demo.dto.TrendSeries;
+import com.noteapp.demo.model.TrendGranularity;
 import com.noteapp.demo.service.ActivityAnalyticsService;
+import com.noteapp.demo.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -16,29 +21,27 @@ import java.util.Map;
 public class DashboardController {
 
     private final ActivityAnalyticsService analyticsService;
+    private final DashboardService dashboardService;
 
     /**
      * Dashboard ana özet bilgileri
      */
     @GetMapping("/api/dashboard/summary")
     public ResponseEntity<DashboardSummary> getDashboardSummary() {
-        LocalDate today = LocalDate.now();
-        LocalDate weekStart = today.minusDays(6);
-        LocalDate monthStart = today.minusDays(29);
-        
-        DashboardSummary summary = DashboardSummary.builder()
-                .todayDuration(analyticsService.getDailyActivityDuration(today))
-                .weekTotalDuration(analyticsService.getTotalDurationByPeriod(weekStart, today))
-                .monthTotalDuration(analyticsService.getTotalDurationByPeriod(monthStart, today))
-                .currentStreak(analyticsService.getCurrentStreak())
-                .longestStreak(analyticsService.getLongestStreak())
-                .averageDailyDuration(analyticsService.getAverageDailyDuration())
-                .mostActiveDay(analyticsService.getMostActiveDay(monthStart, today))
-                .categoryPerformance(analyticsService.getCategoryPerformance(monthStart, today))
-                .weeklyActivitySummary(analyticsService.getWeeklyActivitySummary())
-                .build();
-        
-        return ResponseEntity.ok(summary);
+        return ResponseEntity.ok(dashboardService.getDashboardSummary());
+    }
+
+    /**
+     * Tarih aralığı, kova boyutu (DAY, WEEK, MONTH, QUARTER, YEAR) ve
+     * isteğe bağlı kategoriye göre trend
+     */
+    @GetMapping("/api/dashboard/trends")
+    public ResponseEntity<TrendSeries> getTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAY") TrendGranularity granularity,
+            @RequestParam(required = false) Long categoryId) {
+        return ResponseEntity.ok(analyticsService.getTrends(startDate, endDate, granularity, categoryId));
     }
 
     /**
@@ -46,29 +49,19 @@ public class DashboardController {
      */
     @GetMapping("/api/dashboard/trends/weekly")
     public ResponseEntity<ActivityTrends> getWeeklyTrends() {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(6);
-        
-        Map<LocalDate, Double> weeklyData = analyticsService.getWeeklyActivitySummary();
-        Double totalDuration = weeklyData.values().stream().mapToDouble(Double::doubleValue).sum();
-        Double averageDuration = totalDuration / 7.0;
-        
-        LocalDate peakDay = weeklyData.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
-        Double peakValue = peakDay != null ? weeklyData.get(peakDay) : 0.0;
-        
-        long activeDays = weeklyData.values().stream().filter(duration -> duration > 0).count();
+        DailySeries weeklyData = analyticsService.getWeeklyActivitySummary();
+        double totalDuration = weeklyData.sum();
+        int peakIndex = weeklyData.peakIndex();
+        int activeDays = weeklyData.activeDays();
         
         ActivityTrends trends = ActivityTrends.builder()
                 .period("WEEKLY")
                 .dailyTrends(weeklyData)
                 .totalDuration(totalDuration)
-                .averageDuration(averageDuration)
-                .peakDay(peakDay)
-                .peakValue(peakValue)
-                .activeDays((int) activeDays)
+                .averageDuration(totalDuration / 7.0)
+                .peakDay(weeklyData.dateAt(peakIndex))
+                .peakValue(weeklyData.valueAt(peakIndex))
+                .activeDays(activeDays)
                 .totalDays(7)
                 .completionRate(activeDays / 7.0)
                 .build();
@@ -99,26 +92,21 @@ public class DashboardController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
-        Map<LocalDate, Double> customData = analyticsService.getCustomDateRangeSummary(startDate, endDate);
-        Double totalDuration = analyticsService.getTotalDurationByPeriod(startDate, endDate);
-        
-        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        Double averageDuration = totalDuration / daysBetween;
-        
-        LocalDate peakDay = analyticsService.getMostActiveDay(startDate, endDate);
-        Double peakValue = peakDay != null ? customData.get(peakDay) : 0.0;
-        
-        long activeDays = customData.values().stream().filter(duration -> duration > 0).count();
+        DailySeries customData = analyticsService.getCustomDateRangeSummary(startDate, endDate);
+        double totalDuration = customData.sum();
+        int daysBetween = customData.size();
+        LocalDate peakDay = customData.peakActiveDay();
+        int activeDays = customData.activeDays();
         
         ActivityTrends trends = ActivityTrends.builder()
                 .period("CUSTOM")
                 .dailyTrends(customData)
                 .totalDuration(totalDuration)
-                .averageDuration(averageDuration)
+                .averageDuration(totalDuration / daysBetween)
                 .peakDay(peakDay)
-                .peakValue(peakValue)
-                .activeDays((int) activeDays)
-                .totalDays((int) daysBetween)
+                .peakValue(peakDay != null ? customData.valueAt(customData.peakIndex()) : 0.0)
+                .activeDays(activeDays)
+                .totalDays(daysBetween)
                 .completionRate(activeDays / (double) daysBetween)
                 .build();
         
@@ -142,9 +130,10 @@ public class DashboardController {
      */
     @GetMapping("/api/dashboard/streaks")
     public ResponseEntity<Map<String, Integer>> getStreakInfo() {
+        StreakInfo info = analyticsService.getStreaks();
         Map<String, Integer> streaks = Map.of(
-                "currentStreak", analyticsService.getCurrentStreak(),
-                "longestStreak", analyticsService.getLongestStreak()
+                "currentStreak", info.getCurrentStreak(),
+                "longestStreak", info.getLongestStreak()
         );
         return ResponseEntity.ok(streaks);
     }
@@ -1,7 +1,10 @@
 package com.noteapp.demo.controller;
 
+import com.noteapp.demo.dto.CursorPage;
 import com.noteapp.demo.dto.GoalRequest;
 import com.noteapp.demo.dto.GoalResponse;
+import com.noteapp.demo.dto.GoalTemplateResponse;
+import com.noteapp.demo.model.GoalStatus;
 import com.noteapp.demo.service.GoalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,8 +28,36 @@ public class GoalController {
     }
 
     @GetMapping("/api/goals")
-    public ResponseEntity<Page<GoalResponse>> getUserGoals(Pageable pageable) {
-        return ResponseEntity.ok(goalService.getUserGoals(pageable));
+    public ResponseEntity<Page<GoalResponse>> getUserGoals(
+            @RequestParam(required = false) GoalStatus status, Pageable pageable) {
+        return ResponseEntity.ok(goalService.getUserGoals(status, pageable));
+    }
+
+    /**
+     * Keyset sayfalama: ?limit=&cursor= (önceki yanıttaki nextCursor), includeTotal=true ise toplam sayı
+     */
+    @GetMapping(value = "/api/goals", params = "limit")
+    public ResponseEntity<CursorPage<GoalResponse>> getUserGoalsByCursor(
+            @RequestParam(required = false) GoalStatus status,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(goalService.getUserGoals(status, cursor, limit, includeTotal));
+    }
+
+    @GetMapping("/api/goals/templates")
+    public ResponseEntity<Page<GoalTemplateResponse>> getTemplates(Pageable pageable) {
+        return ResponseEntity.ok(goalService.getUserTemplates(pageable));
+    }
+
+    @PostMapping("/api/goals/templates/{id}/stop")
+    public ResponseEntity<GoalTemplateResponse> stopTemplate(@PathVariable Long id) {
+        return ResponseEntity.ok(goalService.stopTemplate(id));
+    }
+
+    @GetMapping("/api/goals/status-counts")
+    public ResponseEntity<Map<GoalStatus, Long>> getStatusCounts() {
+        return ResponseEntity.ok(goalService.getStatusCounts());
     }
 
     @GetMapping("/api/goals/{id}")
@@ -0,0 +1,24 @@
+package com.noteapp.demo.controller;
+
+import com.noteapp.demo.service.LiveUpdateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequiredArgsConstructor
+public class LiveUpdateController {
+
+    private final LiveUpdateService liveUpdateService;
+
+    /**
+     * Aktivite değişikliklerinin canlı akışı (SSE).
+     * Olaylar: daily-total, goal, streak; boşta iken heartbeat yorumu gönderilir
+     */
+    @GetMapping(value = "/api/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return liveUpdateService.subscribe();
+    }
+}
@@ -0,0 +1,19 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ActivityImportResult {
+    private long imported;
+    private long failed;
+    private List<ImportRowError> errors; // en fazla noteapp.activity-import.max-errors kadar
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,16 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActivityPoint {
+    private LocalDate date;
+    private String categoryName;
+    private Double durationHours;
+}
@@ -1,5 +1,6 @@
 package com.noteapp.demo.dto;
 
+import com.noteapp.demo.validation.ActivityDate;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -17,6 +18,7 @@ public class ActivityRequest {
     private Long categoryId;
 
     @NotNull
+    @ActivityDate
     private LocalDate date;
 
     @NotNull
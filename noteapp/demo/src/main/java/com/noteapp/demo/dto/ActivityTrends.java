@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
-import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -14,7 +13,7 @@ import java.util.Map;
 @Builder
 public class ActivityTrends {
     private String period; // WEEKLY, MONTHLY
-    private Map<LocalDate, Double> dailyTrends;
+    private DailySeries dailyTrends;
     private Double totalDuration;
     private Double averageDuration;
     private LocalDate peakDay;
@@ -3,8 +3,14 @@ package com.noteapp.demo.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+/**
+ * token: kısa ömürlü access token, expiresIn: saniye cinsinden ömrü.
+ * refreshToken tek kullanımlıktır; /api/auth/refresh her çağrıda yenisini döner.
+ */
 @Data
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
+    private long expiresIn;
 }
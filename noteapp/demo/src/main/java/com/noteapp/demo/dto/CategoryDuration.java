@@ -0,0 +1,14 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryDuration {
+    private Long categoryId;
+    private String categoryName;
+    private Double durationHours;
+}
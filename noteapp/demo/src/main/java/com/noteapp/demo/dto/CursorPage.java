@@ -0,0 +1,19 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // sonraki sayfa için ?cursor=; son sayfada null
+    private boolean hasNext;
+    private Long total; // sadece includeTotal=true ise
+}
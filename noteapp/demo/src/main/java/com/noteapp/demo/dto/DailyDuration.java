@@ -0,0 +1,15 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyDuration {
+    private LocalDate date;
+    private Double durationHours;
+}
@@ -0,0 +1,122 @@
+package com.noteapp.demo.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Başlangıç günü (epoch-day) ve gün başına bir double değerinden oluşan
+ * günlük zaman serisi. Map&lt;LocalDate, Double&gt; yerine kullanılır; JSON'a
+ * yine {"YYYY-MM-DD": saat, ...} nesnesi olarak, tarih sırasıyla yazılır.
+ */
+@JsonSerialize(using = DailySeries.Serializer.class)
+public class DailySeries {
+
+    private final long startEpochDay;
+    private final double[] values;
+
+    public DailySeries(LocalDate startDate, LocalDate endDate) {
+        this.startEpochDay = startDate.toEpochDay();
+        this.values = new double[(int) (endDate.toEpochDay() - startEpochDay + 1)];
+    }
+
+    public static DailySeries of(LocalDate startDate, LocalDate endDate, List<DailyDuration> totals) {
+        DailySeries series = new DailySeries(startDate, endDate);
+        for (DailyDuration total : totals) {
+            series.add(total.getDate(), total.getDurationHours());
+        }
+        return series;
+    }
+
+    public void add(LocalDate date, double hours) {
+        values[(int) (date.toEpochDay() - startEpochDay)] += hours;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(startEpochDay + index);
+    }
+
+    public double valueAt(int index) {
+        return values[index];
+    }
+
+    public double sum() {
+        return sum(0, values.length);
+    }
+
+    /**
+     * [fromIndex, toIndex) aralığındaki değerlerin toplamı
+     */
+    public double sum(int fromIndex, int toIndex) {
+        double sum = 0.0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    public int activeDays() {
+        int count = 0;
+        for (double value : values) {
+            if (value > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Serinin son 'days' gününü kapsayan kopyası
+     */
+    public DailySeries tail(int days) {
+        DailySeries tail = new DailySeries(dateAt(values.length - days), dateAt(values.length - 1));
+        System.arraycopy(values, values.length - days, tail.values, 0, days);
+        return tail;
+    }
+
+    /**
+     * En yüksek değerli günün indeksi; eşitlikte en erken gün, seri boşsa -1
+     */
+    public int peakIndex() {
+        int peak = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (peak < 0 || values[i] > values[peak]) {
+                peak = i;
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Aktivite olan günler arasında en yüksek değerli gün, hiç yoksa null
+     */
+    public LocalDate peakActiveDay() {
+        int peak = peakIndex();
+        return peak >= 0 && values[peak] > 0 ? dateAt(peak) : null;
+    }
+
+    public static class Serializer extends StdSerializer<DailySeries> {
+
+        public Serializer() {
+            super(DailySeries.class);
+        }
+
+        @Override
+        public void serialize(DailySeries series, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            for (int i = 0; i < series.values.length; i++) {
+                gen.writeNumberField(series.dateAt(i).toString(), series.values[i]);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
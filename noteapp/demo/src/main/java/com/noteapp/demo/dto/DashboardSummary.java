@@ -21,5 +21,5 @@ public class DashboardSummary {
     private Double averageDailyDuration;
     private LocalDate mostActiveDay;
     private Map<String, Double> categoryPerformance;
-    private Map<LocalDate, Double> weeklyActivitySummary;
+    private DailySeries weeklyActivitySummary;
 }
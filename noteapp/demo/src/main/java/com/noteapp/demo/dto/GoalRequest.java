@@ -23,4 +23,5 @@ public class GoalRequest {
     private LocalDate startDate; // WEEKLY/MONTHLY için yok sayılabilir
     private LocalDate endDate;   // WEEKLY/MONTHLY için otomatik hesaplanır
     private Long categoryId; // optional
+    private Boolean recurring; // WEEKLY/MONTHLY: her yeni dönemde otomatik yenilenir
 }
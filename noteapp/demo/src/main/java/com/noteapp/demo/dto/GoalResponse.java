@@ -25,4 +25,5 @@ public class GoalResponse {
     private GoalStatus status;
     private Long categoryId;
     private String categoryName;
+    private Long templateId; // tekrarlayan hedefse şablon id'si
 }
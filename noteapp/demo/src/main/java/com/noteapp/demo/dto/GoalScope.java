@@ -0,0 +1,17 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GoalScope {
+    private Long goalId;
+    private Long categoryId; // null ise tüm kategoriler
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
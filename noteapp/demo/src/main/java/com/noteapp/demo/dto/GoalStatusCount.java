@@ -0,0 +1,14 @@
+package com.noteapp.demo.dto;
+
+import com.noteapp.demo.model.GoalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GoalStatusCount {
+    private GoalStatus status;
+    private Long count;
+}
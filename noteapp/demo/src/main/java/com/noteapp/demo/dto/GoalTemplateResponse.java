@@ -0,0 +1,25 @@
+package com.noteapp.demo.dto;
+
+import com.noteapp.demo.model.GoalType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GoalTemplateResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private GoalType type;
+    private Double targetHours;
+    private Boolean active;
+    private LocalDate lastPeriodStart;
+    private Long categoryId;
+    private String categoryName;
+}
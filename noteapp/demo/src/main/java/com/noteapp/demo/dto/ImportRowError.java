@@ -0,0 +1,13 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowError {
+    private long line; // gövdedeki satır numarası (1'den başlar, başlık dahil)
+    private String message;
+}
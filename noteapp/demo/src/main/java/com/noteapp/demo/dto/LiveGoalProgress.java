@@ -0,0 +1,15 @@
+package com.noteapp.demo.dto;
+
+import com.noteapp.demo.model.GoalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LiveGoalProgress {
+    private Long goalId;
+    private Double currentHours;
+    private GoalStatus status;
+}
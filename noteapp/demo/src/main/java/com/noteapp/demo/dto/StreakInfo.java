@@ -0,0 +1,13 @@
+package com.noteapp.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StreakInfo {
+    private Integer currentStreak;
+    private Integer longestStreak;
+}
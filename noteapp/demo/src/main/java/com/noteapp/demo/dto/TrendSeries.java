@@ -0,0 +1,28 @@
+package com.noteapp.demo.dto;
+
+import com.noteapp.demo.model.TrendGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TrendSeries {
+    private TrendGranularity granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long categoryId; // null ise tüm kategoriler
+    private List<TrendBucket> buckets; // boş kovalar 0.0, eskiden yeniye
+    private Double totalDuration;
+    private Double averageDuration; // kova başına
+    private LocalDate peakBucket;
+    private Double peakValue;
+    private Integer activeBuckets;
+    private Integer totalBuckets;
+}
@@ -0,0 +1,21 @@
+package com.noteapp.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * ActivityService bir aktivite eklediğinde, güncellediğinde veya sildiğinde yayınlanır
+ */
+@Data
+@AllArgsConstructor
+public class ActivityChangedEvent {
+    private Long userId;
+    private List<ActivityDelta> deltas;
+    private long publishedAtNanos; // System.nanoTime(), commit'ten önce alınır
+
+    public ActivityChangedEvent(Long userId, List<ActivityDelta> deltas) {
+        this(userId, deltas, System.nanoTime());
+    }
+}
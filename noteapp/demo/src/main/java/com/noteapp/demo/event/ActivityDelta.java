@@ -0,0 +1,27 @@
+package com.noteapp.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Bir gün/kategori toplamına uygulanan değişiklik.
+ * Ekleme pozitif, silme negatif süre ve adet taşır.
+ */
+@Data
+@AllArgsConstructor
+public class ActivityDelta {
+    private LocalDate date;
+    private Long categoryId;
+    private double hours;
+    private int count;
+
+    public static ActivityDelta added(LocalDate date, Long categoryId, double hours) {
+        return new ActivityDelta(date, categoryId, hours, 1);
+    }
+
+    public static ActivityDelta removed(LocalDate date, Long categoryId, double hours) {
+        return new ActivityDelta(date, categoryId, -hours, -1);
+    }
+}
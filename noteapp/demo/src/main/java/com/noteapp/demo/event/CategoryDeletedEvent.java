@@ -0,0 +1,14 @@
+package com.noteapp.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Kategori ve ona bağlı tüm aktiviteler silindiğinde yayınlanır
+ */
+@Data
+@AllArgsConstructor
+public class CategoryDeletedEvent {
+    private Long userId;
+    private Long categoryId;
+}
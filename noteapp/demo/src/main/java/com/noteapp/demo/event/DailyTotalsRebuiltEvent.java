@@ -0,0 +1,14 @@
+package com.noteapp.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Kullanıcının daily_totals satırları aktivitelerden yeniden kurulduğunda yayınlanır;
+ * bu satırlardan türeyen indeks ve önbellek girişleri bırakılır
+ */
+@Data
+@AllArgsConstructor
+public class DailyTotalsRebuiltEvent {
+    private Long userId;
+}
@@ -0,0 +1,18 @@
+package com.noteapp.demo.event;
+
+import com.noteapp.demo.dto.GoalScope;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Hedef oluşturulduğunda, güncellendiğinde veya silindiğinde yayınlanır.
+ * previous oluşturmada, current silmede null'dır.
+ */
+@Data
+@AllArgsConstructor
+public class GoalChangedEvent {
+    private Long userId;
+    private Long goalId;
+    private GoalScope previous;
+    private GoalScope current;
+}
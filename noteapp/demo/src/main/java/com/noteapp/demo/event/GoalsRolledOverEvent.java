@@ -0,0 +1,15 @@
+package com.noteapp.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * Rollover işi şablonlardan toplu hedef ürettiğinde, etkilenen kullanıcılarla yayınlanır
+ */
+@Data
+@AllArgsConstructor
+public class GoalsRolledOverEvent {
+    private Collection<Long> userIds;
+}
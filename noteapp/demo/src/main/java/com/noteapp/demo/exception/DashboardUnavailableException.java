@@ -0,0 +1,16 @@
+package com.noteapp.demo.exception;
+
+/**
+ * Dashboard özeti süresi içinde hesaplanamadı (deadline aşıldı, sorgu zaman
+ * aşımına uğradı veya istek kesildi); hata değil, 503 ile geçici durum bildirilir
+ */
+public class DashboardUnavailableException extends RuntimeException {
+
+    public DashboardUnavailableException(String message) {
+        super(message);
+    }
+
+    public DashboardUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.noteapp.demo.exception;
+
+/**
+ * Çözülemeyen veya bozuk keyset sayfalama devam belirteci (cursor)
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
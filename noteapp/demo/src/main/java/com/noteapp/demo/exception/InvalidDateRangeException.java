@@ -0,0 +1,11 @@
+package com.noteapp.demo.exception;
+
+/**
+ * Bitişi başlangıcından önce veya izin verilen uzunluğu aşan tarih aralığı
+ */
+public class InvalidDateRangeException extends RuntimeException {
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
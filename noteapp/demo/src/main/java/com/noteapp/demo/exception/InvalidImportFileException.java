@@ -0,0 +1,12 @@
+package com.noteapp.demo.exception;
+
+/**
+ * İçe aktarılan dosya bütünüyle okunamıyor (ör. zorunlu sütunları olmayan CSV başlığı);
+ * tek tek satır hataları bunun yerine sonuçta raporlanır
+ */
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
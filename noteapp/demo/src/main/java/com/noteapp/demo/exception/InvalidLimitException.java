@@ -0,0 +1,11 @@
+package com.noteapp.demo.exception;
+
+/**
+ * Keyset sayfalamada pozitif olmayan sayfa boyutu (limit)
+ */
+public class InvalidLimitException extends RuntimeException {
+
+    public InvalidLimitException(String message) {
+        super(message);
+    }
+}
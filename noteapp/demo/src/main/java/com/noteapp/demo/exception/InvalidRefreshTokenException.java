@@ -0,0 +1,11 @@
+package com.noteapp.demo.exception;
+
+/**
+ * Refresh token bulunamadı, süresi dolmuş, iptal edilmiş veya tekrar kullanılmış
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException() {
+        super("Refresh token is invalid or expired");
+    }
+}
@@ -0,0 +1,11 @@
+package com.noteapp.demo.exception;
+
+/**
+ * İstekte oturum açmış kullanıcı yok veya token'daki kullanıcı artık mevcut değil
+ */
+public class NotAuthenticatedException extends RuntimeException {
+
+    public NotAuthenticatedException(String message) {
+        super(message);
+    }
+}
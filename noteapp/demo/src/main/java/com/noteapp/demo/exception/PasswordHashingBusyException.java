@@ -0,0 +1,20 @@
+package com.noteapp.demo.exception;
+
+import java.time.Duration;
+
+/**
+ * Parola hash havuzu ve kuyruğu dolu; istemci retryAfter sonra tekrar denemeli
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(Duration retryAfter) {
+        super("Too many concurrent sign-in requests, please retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
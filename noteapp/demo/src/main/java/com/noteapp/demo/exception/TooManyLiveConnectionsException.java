@@ -0,0 +1,21 @@
+package com.noteapp.demo.exception;
+
+import java.time.Duration;
+
+/**
+ * Kullanıcı canlı bağlantı sınırına ulaştı; kopan bir bağlantının yeri
+ * en geç retryAfter içinde boşalır
+ */
+public class TooManyLiveConnectionsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyLiveConnectionsException(Duration retryAfter) {
+        super("Too many live connections");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
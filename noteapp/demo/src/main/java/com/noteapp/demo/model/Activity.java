@@ -11,15 +11,24 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activities")
+@Table(name = "activities", indexes = {
+        // (date, id) keyset sayfalaması ve tarih aralığı okumaları için
+        @Index(name = "idx_activities_user_date_id", columnList = "user_id, date, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Activity {
 
+    // Desteklenen tarih penceresi; gün indeksleri bu aralık uzunluğunda dizi tutar
+    public static final LocalDate MIN_DATE = LocalDate.of(2000, 1, 1);
+    public static final LocalDate MAX_DATE = LocalDate.of(2099, 12, 31);
+
+    // IDENTITY JDBC batch insert'ü kapatır; id'ler sequence'tan 50'lik bloklarla alınır
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne( fetch = FetchType.LAZY)
@@ -38,6 +47,10 @@ public class Activity {
 
     private LocalDateTime createdAt;
 
+    public static boolean isSupportedDate(LocalDate date) {
+        return !date.isBefore(MIN_DATE) && !date.isAfter(MAX_DATE);
+    }
+
     @PrePersist
     private void prePersist(){
         createdAt = LocalDateTime.now();
@@ -0,0 +1,25 @@
+package com.noteapp.demo.model;
+
+/**
+ * Toplu içe/dışa aktarma biçimleri
+ */
+public enum ActivityFileFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ActivityFileFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_user_id", columnList = "user_id, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
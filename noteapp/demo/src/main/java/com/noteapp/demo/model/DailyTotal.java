@@ -0,0 +1,32 @@
+package com.noteapp.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kullanıcı, gün ve kategori bazında aktivite toplamı.
+ * ActivityService yazma işlemleriyle aynı transaction içinde güncellenir;
+ * analitik sorgular aktivite satırları yerine bu tabloyu okur.
+ */
+@Entity
+@Table(name = "daily_totals", indexes = {
+        @Index(name = "idx_daily_totals_user_date", columnList = "user_id, date")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DailyTotal {
+
+    @EmbeddedId
+    private DailyTotalId id;
+
+    @Column(nullable = false)
+    private Double hours;
+
+    @Column(name = "count", nullable = false)
+    private Integer activityCount;
+}
@@ -10,7 +10,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "goals")
+@Table(name = "goals", uniqueConstraints = {
+        // Bir şablondan her dönem için en fazla bir hedef
+        @UniqueConstraint(name = "uk_goals_template_period", columnNames = {"template_id", "start_date"})
+}, indexes = {
+        @Index(name = "idx_goals_user_dates", columnList = "user_id, start_date, end_date"),
+        @Index(name = "idx_goals_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_goals_user_status", columnList = "user_id, status, id"),
+        @Index(name = "idx_goals_status_end", columnList = "status, end_date")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,6 +37,10 @@ public class Goal {
     @JoinColumn(name = "category_id")
     private Category category; // optional: null -> tüm kategoriler
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id")
+    private GoalTemplate template; // tekrarlayan hedefin şablonu, yoksa null
+
     @Column(nullable = false)
     private String title;
 
@@ -47,6 +59,17 @@ public class Goal {
     @Column(nullable = false)
     private LocalDate endDate;
 
+    // Aktivite yazmalarıyla güncellenen ilerleme; hedef aralığı/kategorisi değişince yeniden hesaplanır
+    @Builder.Default
+    @Column(name = "current_hours")
+    private Double currentHours = 0.0;
+
+    // İlerleme yazmalarıyla ve süresi dolan hedefler için zamanlanmış süpürücüyle güncellenir
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private GoalStatus status = GoalStatus.ACTIVE;
+
     private LocalDateTime createdAt;
 
     @PrePersist
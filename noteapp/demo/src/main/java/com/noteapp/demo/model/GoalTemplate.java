@@ -0,0 +1,63 @@
+package com.noteapp.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tekrarlayan WEEKLY/MONTHLY hedef. Rollover işi her yeni dönemde bu
+ * şablondan bir Goal üretir; lastPeriodStart en son üretilen dönemdir.
+ */
+@Entity
+@Table(name = "goal_templates", indexes = {
+        @Index(name = "idx_goal_templates_rollover", columnList = "type, active, last_period_start")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GoalTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category; // optional: null -> tüm kategoriler
+
+    @Column(nullable = false)
+    private String title;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GoalType type; // WEEKLY, MONTHLY
+
+    @Column(nullable = false)
+    private Double targetHours;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    @Column(name = "last_period_start")
+    private LocalDate lastPeriodStart;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    private void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+}
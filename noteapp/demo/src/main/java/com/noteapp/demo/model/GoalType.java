@@ -1,7 +1,32 @@
 package com.noteapp.demo.model;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+
 public enum GoalType {
     WEEKLY,
     MONTHLY,
-    CUSTOM
+    CUSTOM;
+
+    /**
+     * Tarihin içinde bulunduğu dönemin ilk günü (hafta pazartesi, ay 1'i)
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case WEEKLY -> date.minusDays((date.getDayOfWeek().getValue() + 6) % 7);
+            case MONTHLY -> date.withDayOfMonth(1);
+            case CUSTOM -> throw new IllegalStateException("CUSTOM goals have no fixed period");
+        };
+    }
+
+    /**
+     * periodStart ile başlayan dönemin son günü
+     */
+    public LocalDate periodEnd(LocalDate periodStart) {
+        return switch (this) {
+            case WEEKLY -> periodStart.plusDays(6);
+            case MONTHLY -> YearMonth.from(periodStart).atEndOfMonth();
+            case CUSTOM -> throw new IllegalStateException("CUSTOM goals have no fixed period");
+        };
+    }
 }
@@ -0,0 +1,63 @@
+package com.noteapp.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Tek kullanımlık refresh token. Değerin kendisi saklanmaz, SHA-256 özeti
+ * saklanır. Her kullanımda aynı familyId ile yenisi üretilir; kullanılmış bir
+ * token tekrar gelirse (çalınmış kabul edilir) tüm aile iptal edilir.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    private Instant usedAt;
+
+    // Bu token ile birlikte verilen access token; aile iptalinde o da iptal edilir
+    @Column(name = "access_token_id", length = 36)
+    private String accessTokenId;
+
+    private Instant accessExpiresAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean revoked = false;
+
+    private Instant createdAt;
+
+    @PrePersist
+    private void prePersist(){
+        createdAt = Instant.now();
+    }
+}
@@ -1,14 +1,24 @@
 package com.noteapp.demo.repository;
 
+import com.noteapp.demo.dto.ActivityResponse;
 import com.noteapp.demo.model.Activity;
 import com.noteapp.demo.model.Category;
 import com.noteapp.demo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
     List<Activity> findByUser(User user);
@@ -16,4 +26,92 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
     List<Activity> findByUserAndCategoryAndDateBetween(User user, Category category, LocalDate startDate, LocalDate endDate);
 
     Page<Activity> findByUser(User user, Pageable pageable);
+
+    /**
+     * Aktiviteyi kategorisiyle birlikte tek sorguda yükler
+     */
+    @EntityGraph(attributePaths = "category")
+    Optional<Activity> findWithCategoryById(Long id);
+
+    // Listeleme: kategori adı join ile aynı satırda gelir, entity/proxy yüklenmez
+    @Query(value = """
+            select new com.noteapp.demo.dto.ActivityResponse(a.id, c.id, c.name, a.date, a.durationHours, a.createdAt)
+            from Activity a join a.category c
+            where a.user.id = :userId
+            """,
+            countQuery = "select count(a) from Activity a where a.user.id = :userId")
+    Page<ActivityResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            select new com.noteapp.demo.dto.ActivityResponse(a.id, c.id, c.name, a.date, a.durationHours, a.createdAt)
+            from Activity a join a.category c
+            where a.user.id = :userId and a.date between :startDate and :endDate
+            """)
+    List<ActivityResponse> findResponsesByUserIdAndDateBetween(@Param("userId") Long userId,
+                                                               @Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate);
+
+    /**
+     * Keyset sayfa: (date, id) azalan sırada verilen anahtardan sonraki satırlar.
+     * (user_id, date, id) indeksi geriye doğru taranır; offset ve count yok.
+     */
+    @Query("""
+            select new com.noteapp.demo.dto.ActivityResponse(a.id, c.id, c.name, a.date, a.durationHours, a.createdAt)
+            from Activity a join a.category c
+            where a.user.id = :userId
+              and (a.date < :date or (a.date = :date and a.id < :id))
+            order by a.date desc, a.id desc
+            """)
+    List<ActivityResponse> findResponsesByUserIdBefore(@Param("userId") Long userId,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("id") Long id,
+                                                       Limit limit);
+
+    // Tarih aralığında (date, id) artan sırada verilen anahtardan sonraki satırlar
+    @Query("""
+            select new com.noteapp.demo.dto.ActivityResponse(a.id, c.id, c.name, a.date, a.durationHours, a.createdAt)
+            from Activity a join a.category c
+            where a.user.id = :userId and a.date between :startDate and :endDate
+              and (a.date > :date or (a.date = :date and a.id > :id))
+            order by a.date, a.id
+            """)
+    List<ActivityResponse> findResponsesByUserIdAndDateBetweenAfter(@Param("userId") Long userId,
+                                                                    @Param("startDate") LocalDate startDate,
+                                                                    @Param("endDate") LocalDate endDate,
+                                                                    @Param("date") LocalDate date,
+                                                                    @Param("id") Long id,
+                                                                    Limit limit);
+
+    long countByUserId(Long userId);
+
+    long countByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Dışa aktarma için ileri yönlü imleç; satırlar fetch size kadar parça parça
+     * çekilir (PostgreSQL'de sadece transaction içinde). Stream kapatılmalıdır.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.noteapp.demo.dto.ActivityResponse(a.id, c.id, c.name, a.date, a.durationHours, a.createdAt)
+            from Activity a join a.category c
+            where a.user.id = :userId and a.date between :startDate and :endDate
+            order by a.date, a.id
+            """)
+    Stream<ActivityResponse> streamResponsesByUserId(@Param("userId") Long userId,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * activities_seq'i mevcut en büyük id'nin ilerisine taşır
+     * (IDENTITY'den sequence'a geçişte eski satırlarla çakışmaması için)
+     */
+    @Query(value = """
+            select setval('activities_seq', greatest(
+                (select coalesce(max(id), 0) from activities) + 1,
+                (select last_value from activities_seq)))
+            """, nativeQuery = true)
+    Long alignIdSequence();
 }
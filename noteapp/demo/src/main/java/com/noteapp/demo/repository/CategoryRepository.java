@@ -1,14 +1,27 @@
 package com.noteapp.demo.repository;
 
+import com.noteapp.demo.dto.CategoryResponse;
 import com.noteapp.demo.model.Category;
 import com.noteapp.demo.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUser(User user);
     Page<Category> findByUser(User user, Pageable pageable);
+
+    // Keyset sayfa: id artan (oluşturulma sırası), verilen id'den büyükler
+    @Query("select new com.noteapp.demo.dto.CategoryResponse(c.id, c.name) from Category c " +
+            "where c.user.id = :userId and c.id > :afterId order by c.id")
+    List<CategoryResponse> findResponsesByUserIdAfter(@Param("userId") Long userId,
+                                                      @Param("afterId") Long afterId,
+                                                      Limit limit);
+
+    long countByUserId(Long userId);
 }
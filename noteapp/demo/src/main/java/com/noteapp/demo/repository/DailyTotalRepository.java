@@ -0,0 +1,117 @@
+package com.noteapp.demo.repository;
+
+import com.noteapp.demo.dto.ActivityPoint;
+import com.noteapp.demo.dto.CategoryDuration;
+import com.noteapp.demo.dto.DailyDuration;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.model.DailyTotalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyTotalRepository extends JpaRepository<DailyTotal, DailyTotalId> {
+
+    // Satır yoksa ekler, varsa süre ve adet farkını uygular
+    @Modifying
+    @Query(value = "insert into daily_totals (user_id, date, category_id, hours, count) " +
+            "values (:userId, :date, :categoryId, :hours, :count) " +
+            "on conflict (user_id, date, category_id) do update " +
+            "set hours = daily_totals.hours + excluded.hours, count = daily_totals.count + excluded.count",
+            nativeQuery = true)
+    void applyDelta(@Param("userId") Long userId,
+                    @Param("date") LocalDate date,
+                    @Param("categoryId") Long categoryId,
+                    @Param("hours") double hours,
+                    @Param("count") int count);
+
+    @Modifying
+    @Query("delete from DailyTotal d where d.id.userId = :userId and d.id.date = :date " +
+            "and d.id.categoryId = :categoryId and d.activityCount <= 0")
+    void deleteIfEmpty(@Param("userId") Long userId,
+                       @Param("date") LocalDate date,
+                       @Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("delete from DailyTotal d where d.id.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from DailyTotal d where d.id.categoryId = :categoryId")
+    void deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Kullanıcının toplamlarını aktivite tablosundan yeniden üretir
+    @Modifying
+    @Query(value = "insert into daily_totals (user_id, date, category_id, hours, count) " +
+            "select a.user_id, a.date, a.category_id, sum(a.duration_hours), count(*) " +
+            "from activities a where a.user_id = :userId " +
+            "group by a.user_id, a.date, a.category_id",
+            nativeQuery = true)
+    void rebuildForUser(@Param("userId") Long userId);
+
+    // categoryId null ise tüm kategoriler
+    @Query("select coalesce(sum(d.hours), 0.0) from DailyTotal d " +
+            "where d.id.userId = :userId and d.id.date between :startDate and :endDate " +
+            "and (:categoryId is null or d.id.categoryId = :categoryId)")
+    Double sumProgress(@Param("userId") Long userId,
+                       @Param("categoryId") Long categoryId,
+                       @Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate);
+
+    @Query("select count(distinct d.id.date) from DailyTotal d " +
+            "where d.id.userId = :userId and d.id.date between :startDate and :endDate")
+    long countActiveDays(@Param("userId") Long userId,
+                         @Param("startDate") LocalDate startDate,
+                         @Param("endDate") LocalDate endDate);
+
+    @Query("select new com.noteapp.demo.dto.DailyDuration(d.id.date, sum(d.hours)) " +
+            "from DailyTotal d " +
+            "where d.id.userId = :userId and d.id.date between :startDate and :endDate " +
+            "group by d.id.date order by d.id.date")
+    List<DailyDuration> findDailyTotals(@Param("userId") Long userId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    @Query("select new com.noteapp.demo.dto.CategoryDuration(c.id, c.name, sum(d.hours)) " +
+            "from DailyTotal d join Category c on c.id = d.id.categoryId " +
+            "where d.id.userId = :userId and d.id.date between :startDate and :endDate " +
+            "group by c.id, c.name")
+    List<CategoryDuration> findCategoryTotals(@Param("userId") Long userId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+
+    // Kovalama veritabanında yapılır; sonuç satır sayısı kova sayısı kadardır.
+    // Satırlar [bucket_start (date), hours] şeklindedir.
+    @Query(value = "select cast(date_trunc(:unit, cast(d.date as timestamp)) as date) as bucket_start, " +
+            "sum(d.hours) as hours " +
+            "from daily_totals d " +
+            "where d.user_id = :userId and d.date between :startDate and :endDate " +
+            "and (cast(:categoryId as bigint) is null or d.category_id = :categoryId) " +
+            "group by bucket_start order by bucket_start",
+            nativeQuery = true)
+    List<Object[]> findBucketTotals(@Param("userId") Long userId,
+                                    @Param("unit") String unit,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate,
+                                    @Param("categoryId") Long categoryId);
+
+    // Gün ve kategori bazında toplam süre (dashboard için)
+    @Query("select new com.noteapp.demo.dto.ActivityPoint(d.id.date, c.name, d.hours) " +
+            "from DailyTotal d join Category c on c.id = d.id.categoryId " +
+            "where d.id.userId = :userId and d.id.date between :startDate and :endDate")
+    List<ActivityPoint> findPoints(@Param("userId") Long userId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+
+    @Query("select d from DailyTotal d where d.id.userId = :userId")
+    List<DailyTotal> findAllByUserId(@Param("userId") Long userId);
+
+    @Query("select distinct d.id.date from DailyTotal d where d.id.userId = :userId order by d.id.date")
+    List<LocalDate> findActiveDates(@Param("userId") Long userId);
+
+    @Query("select count(d) > 0 from DailyTotal d where d.id.userId = :userId and d.id.date = :date")
+    boolean existsForDay(@Param("userId") Long userId, @Param("date") LocalDate date);
+}
@@ -1,14 +1,120 @@
 package com.noteapp.demo.repository;
 
+import com.noteapp.demo.dto.GoalStatusCount;
+import com.noteapp.demo.dto.LiveGoalProgress;
 import com.noteapp.demo.model.Goal;
+import com.noteapp.demo.model.GoalStatus;
 import com.noteapp.demo.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface GoalRepository extends JpaRepository<Goal, Long> {
+
+    // Hedefin kapsamındaki (kullanıcı, tarih aralığı, varsa kategori) günlük toplamların toplamı
+    String PROGRESS_SUBQUERY = "(select coalesce(sum(d.hours), 0.0) from DailyTotal d " +
+            "where d.id.userId = g.user.id and d.id.date between g.startDate and g.endDate " +
+            "and (g.category.id is null or d.id.categoryId = g.category.id))";
+
+    // currentHours ve endDate'ten durum; GoalProgressService.statusOf ile aynı kural
+    String STATUS_CASE = "case when g.currentHours >= g.targetHours then com.noteapp.demo.model.GoalStatus.COMPLETED " +
+            "when g.endDate < :today then com.noteapp.demo.model.GoalStatus.FAILED " +
+            "else com.noteapp.demo.model.GoalStatus.ACTIVE end";
+
     List<Goal> findByUser(User user);
+
+    @EntityGraph(attributePaths = "category")
     Page<Goal> findByUser(User user, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    Page<Goal> findByUserAndStatus(User user, GoalStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Goal> findWithCategoryById(Long id);
+
+    // Keyset sayfa: id azalan (en yeni hedef önce), verilen id'den küçükler
+    @EntityGraph(attributePaths = "category")
+    @Query("select g from Goal g where g.user.id = :userId and g.id < :beforeId order by g.id desc")
+    List<Goal> findByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select g from Goal g where g.user.id = :userId and g.status = :status and g.id < :beforeId " +
+            "order by g.id desc")
+    List<Goal> findByUserIdAndStatusBefore(@Param("userId") Long userId,
+                                           @Param("status") GoalStatus status,
+                                           @Param("beforeId") Long beforeId,
+                                           Limit limit);
+
+    long countByUserId(Long userId);
+
+    long countByUserIdAndStatus(Long userId, GoalStatus status);
+
+    @Query("select new com.noteapp.demo.dto.LiveGoalProgress(g.id, g.currentHours, g.status) " +
+            "from Goal g where g.id in :goalIds")
+    List<LiveGoalProgress> findProgressByIds(@Param("goalIds") Collection<Long> goalIds);
+
+    // Tarih aralığıyla kesişen ve kategorilerden birini (veya tüm kategorileri) kapsayan hedefler;
+    // idx_goals_user_dates üzerinden okunur
+    @Query("select new com.noteapp.demo.dto.LiveGoalProgress(g.id, g.currentHours, g.status) " +
+            "from Goal g where g.user.id = :userId and g.startDate <= :to and g.endDate >= :from " +
+            "and (g.category.id is null or g.category.id in :categoryIds)")
+    List<LiveGoalProgress> findProgressCovering(@Param("userId") Long userId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("categoryIds") Collection<Long> categoryIds);
+
+    @Query("select new com.noteapp.demo.dto.GoalStatusCount(g.status, count(g)) " +
+            "from Goal g where g.user.id = :userId group by g.status")
+    List<GoalStatusCount> countByStatus(@Param("userId") Long userId);
+
+    // Değişen günü kapsayan hedeflerin ilerlemesine farkı ekler (kategori null = tüm kategoriler).
+    // SET ifadeleri eski değerleri görür; durum yeni toplam (currentHours + hours) ile hesaplanır
+    @Modifying
+    @Query("update Goal g set g.currentHours = g.currentHours + :hours, " +
+            "g.status = case when g.currentHours + :hours >= g.targetHours then com.noteapp.demo.model.GoalStatus.COMPLETED " +
+            "when g.endDate < :today then com.noteapp.demo.model.GoalStatus.FAILED " +
+            "else com.noteapp.demo.model.GoalStatus.ACTIVE end " +
+            "where g.user.id = :userId and g.startDate <= :date and g.endDate >= :date " +
+            "and (g.category.id is null or g.category.id = :categoryId)")
+    int addProgress(@Param("userId") Long userId,
+                    @Param("categoryId") Long categoryId,
+                    @Param("date") LocalDate date,
+                    @Param("hours") double hours,
+                    @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("update Goal g set g.currentHours = " + PROGRESS_SUBQUERY + " where g.user.id = :userId")
+    int resyncProgressForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Goal g set g.currentHours = " + PROGRESS_SUBQUERY + " where g.currentHours is null")
+    int resyncMissingProgress();
+
+    @Modifying
+    @Query("update Goal g set g.status = " + STATUS_CASE + " where g.user.id = :userId")
+    int refreshStatusForUser(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("update Goal g set g.status = " + STATUS_CASE + " where g.status is null")
+    int refreshMissingStatus(@Param("today") LocalDate today);
+
+    // Süresi dolmuş ACTIVE hedeflerden bir parti; başka bir düğümün kilitlediği
+    // satırlar atlanır, böylece süpürücü birden çok düğümde aynı anda çalışabilir
+    @Modifying
+    @Query(value = "update goals set status = case when current_hours >= target_hours " +
+            "then 'COMPLETED' else 'FAILED' end " +
+            "where id in (select id from goals where status = 'ACTIVE' and end_date < :today " +
+            "order by id limit :batchSize for update skip locked)",
+            nativeQuery = true)
+    int expireBatch(@Param("today") LocalDate today, @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,56 @@
+package com.noteapp.demo.repository;
+
+import com.noteapp.demo.model.GoalTemplate;
+import com.noteapp.demo.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface GoalTemplateRepository extends JpaRepository<GoalTemplate, Long> {
+
+    @EntityGraph(attributePaths = "category")
+    Page<GoalTemplate> findByUser(User user, Pageable pageable);
+
+    // Verilen dönem için henüz hedef üretilmemiş aktif şablonlardan bir parça [id, user_id].
+    // Başka düğümün kilitlediği satırlar atlanır.
+    @Query(value = "select t.id, t.user_id from goal_templates t " +
+            "where t.type = :type and t.active = true " +
+            "and (t.last_period_start is null or t.last_period_start < :periodStart) " +
+            "order by t.id limit :chunkSize for update skip locked",
+            nativeQuery = true)
+    List<Object[]> lockDueChunk(@Param("type") String type,
+                                @Param("periodStart") LocalDate periodStart,
+                                @Param("chunkSize") int chunkSize);
+
+    // Şablonlardan dönemin hedeflerini toplu üretir; ilerleme ve durum dönemin
+    // mevcut günlük toplamlarından hesaplanır. Aynı dönem iki kez üretilmez.
+    @Modifying
+    @Query(value = "insert into goals (user_id, category_id, template_id, title, description, type, " +
+            "target_hours, start_date, end_date, current_hours, status, created_at) " +
+            "select t.user_id, t.category_id, t.id, t.title, t.description, t.type, t.target_hours, " +
+            ":periodStart, :periodEnd, coalesce(p.hours, 0), " +
+            "case when coalesce(p.hours, 0) >= t.target_hours then 'COMPLETED' else 'ACTIVE' end, now() " +
+            "from goal_templates t " +
+            "left join lateral (select sum(d.hours) as hours from daily_totals d " +
+            "where d.user_id = t.user_id and d.date between :periodStart and :periodEnd " +
+            "and (t.category_id is null or d.category_id = t.category_id)) p on true " +
+            "where t.id in (:templateIds) " +
+            "on conflict (template_id, start_date) do nothing",
+            nativeQuery = true)
+    int instantiate(@Param("templateIds") Collection<Long> templateIds,
+                    @Param("periodStart") LocalDate periodStart,
+                    @Param("periodEnd") LocalDate periodEnd);
+
+    @Modifying
+    @Query("update GoalTemplate t set t.lastPeriodStart = :periodStart where t.id in :templateIds")
+    int markRolledOver(@Param("templateIds") Collection<Long> templateIds,
+                       @Param("periodStart") LocalDate periodStart);
+}
@@ -2,9 +2,30 @@ package com.noteapp.demo.repository;
 
 import com.noteapp.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("select u.id from User u order by u.id")
+    List<Long> findAllIds();
+
+    // Aktivitesi olup daily_totals satırı olmayan kullanıcılar: rollup henüz kurulmamış
+    @Query("select u.id from User u " +
+            "where exists (select 1 from Activity a where a.user.id = u.id) " +
+            "and not exists (select 1 from DailyTotal d where d.id.userId = u.id) " +
+            "order by u.id")
+    List<Long> findIdsMissingDailyTotals();
+
+    // Aktivite yazmaları birbirini beklemez; sadece süren bir yeniden kurulumu bekler
+    @Query(value = "select id from users where id = :id for key share", nativeQuery = true)
+    Long lockForActivityWrite(@Param("id") Long id);
+
+    // for key share ile çakışır: yazmalar (FK kontrolleri dahil) commit'e kadar bekler
+    @Query(value = "select id from users where id = :id for update", nativeQuery = true)
+    Long lockForRebuild(@Param("id") Long id);
 }
@@ -0,0 +1,55 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.exception.NotAuthenticatedException;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Servislerin oturumdaki kullanıcıya erişim noktası. Principal token'dan
+ * gelen AuthenticatedUser ise id sorgusuz döner ve User yüklenmemiş bir
+ * referanstır (sadece id'si okunursa sorgu atılmaz). Diğer principal'lar
+ * (uid claim'i olmayan eski token'lar) için e-posta ile bir kez aranır ve
+ * sonuç istek boyunca saklanır.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private static final String USER_ID_ATTRIBUTE = CurrentUserResolver.class.getName() + ".userId";
+
+    private final UserRepository userRepository;
+
+    public Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        // permitAll altındaki isteklerde anonim token bulunur; kullanıcı sayılmaz
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            throw new NotAuthenticatedException("Authentication required");
+        }
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal && principal.getId() != null) {
+            return principal.getId();
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long id) {
+            return id;
+        }
+        Long id = userRepository.findByEmail(auth.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new NotAuthenticatedException("User not found"));
+        if (request != null) {
+            request.setAttribute(USER_ID_ATTRIBUTE, id, RequestAttributes.SCOPE_REQUEST);
+        }
+        return id;
+    }
+
+    public User currentUser() {
+        return userRepository.getReferenceById(currentUserId());
+    }
+}
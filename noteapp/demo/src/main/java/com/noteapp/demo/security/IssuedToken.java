@@ -0,0 +1,9 @@
+package com.noteapp.demo.security;
+
+import java.time.Instant;
+
+/**
+ * Yeni üretilen access token, jti'si ve bitiş anı
+ */
+public record IssuedToken(String value, String id, Instant expiresAt) {
+}
@@ -1,5 +1,7 @@
 package com.noteapp.demo.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +13,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,6 +26,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,49 +35,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
 
-        log.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
-        log.debug("Authorization header: {}", authHeader);
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            log.debug("Extracted token: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
-            
-            try {
-                username = jwtUtil.getUsernameFromToken(token);
-                log.debug("Extracted username from token: {}", username);
-            } catch (Exception e) {
-                log.warn("Failed to parse JWT token: {}", e.getMessage());
-            }
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            log.debug("No bearer token on {} {}", request.getMethod(), request.getRequestURI());
+        } else if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            log.debug("Authentication already exists for {} {}", request.getMethod(), request.getRequestURI());
         } else {
-            log.debug("No valid Authorization header found");
+            authenticate(authHeader.substring(7), request);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            log.debug("Loading user details for username: {}", username);
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        filterChain.doFilter(request, response);
+    }
 
-            if (jwtUtil.validateToken(token)) {
-                log.debug("JWT token is valid, setting authentication for user: {}", username);
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            } else {
-                log.warn("JWT token validation failed for user: {}", username);
+    // Token tek seferde doğrulanır; başarısızsa istek kimliksiz devam eder
+    private void authenticate(String token, HttpServletRequest request) {
+        try {
+            VerifiedToken verified = jwtUtil.verify(token);
+            // Çıkış yapılmış, ailesi veya kullanıcısı iptal edilmiş token; bellek içi kontrol, sorgu yok
+            if (revokedTokenIndex.isRevoked(verified.id())) {
+                log.warn("Revoked token id used for user: {}", verified.subject());
+                return;
             }
-        } else if (username == null) {
-            log.debug("No username extracted from token");
-        } else {
-            log.debug("Authentication already exists for user: {}", username);
+            UserDetails principal = verified.toPrincipal();
+            if (principal == null) {
+                // uid claim'i olmayan eski token: kullanıcı veritabanından yüklenir
+                principal = userDetailsService.loadUserByUsername(verified.subject());
+            }
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            principal,
+                            null,
+                            principal.getAuthorities()
+                    );
+            authToken.setDetails(detailsSource.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            log.debug("JWT token is valid, authenticated user: {}", verified.subject());
+        } catch (ExpiredJwtException e) {
+            log.warn("Token expired at {}", e.getClaims() != null ? e.getClaims().getExpiration() : "unknown");
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("JWT token validation failed: {}", e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            log.warn("JWT subject no longer exists: {}", e.getMessage());
         }
-        
-        filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.noteapp.demo.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -8,17 +11,53 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-    @Value("${jwt.expiration}")
-    private Long jwtExpiration;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
 
-    private Key getSignKey(){
+    private final Long jwtExpiration;
+    // Anahtar ve parser bir kez kurulur; ikisi de thread-safe
+    private final Key signKey;
+    private final JwtParser parser;
+    // Son doğrulanan token'lar, kendi exp anlarına kadar tutulur
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtUtil(@Value("${jwt.secret}") String jwtSecret,
+                   @Value("${jwt.expiration}") Long jwtExpiration,
+                   @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize) {
+        this.jwtExpiration = jwtExpiration;
+        this.signKey = buildSignKey(jwtSecret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+                        return untilExpiry(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return untilExpiry(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    private static Key buildSignKey(String jwtSecret) {
         if (jwtSecret == null) {
             log.error("JWT secret is null. Configure 'jwt.secret'.");
             throw new IllegalStateException("JWT secret is not configured");
@@ -28,55 +67,61 @@ public class JwtUtil {
             log.error("JWT secret is too short (length: {}). Must be >= 32 characters.", jwtSecret.length());
             throw new IllegalStateException("JWT secret is too short; must be at least 32 characters");
         }
-        log.debug("Using JWT secret: {}", jwtSecret.substring(0, Math.min(jwtSecret.length(), 10)) + "...");
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
     }
 
-    public String generateToken(String username){
-        log.debug("Generating token for username: {}", username);
-        String token = Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+    private static long untilExpiry(VerifiedToken token) {
+        if (token.expiresAt() == null) {
+            return 0;
+        }
+        long millis = token.expiresAt().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+    }
+
+    public String generateToken(AuthenticatedUser user){
+        return issue(user).value();
+    }
+
+    /**
+     * İstekler kullanıcıyı veritabanına gitmeden tanısın diye id ve roller token'a yazılır.
+     * jti, token'ı süresi dolmadan tek başına iptal edebilmek için üretilir.
+     */
+    public IssuedToken issue(AuthenticatedUser user){
+        log.debug("Generating token for username: {}", user.getUsername());
+        String id = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        Date expiresAt = new Date(now + jwtExpiration);
+        String value = Jwts.builder()
+                .setId(id)
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, user.getRoles())
+                .setIssuedAt(new Date(now))
+                .setExpiration(expiresAt)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
-        log.debug("Generated token: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
-        return token;
+        return new IssuedToken(value, id, expiresAt.toInstant());
     }
 
-    public String getUsernameFromToken(String token){
-        log.debug("Extracting username from token: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
-        try {
-            String username = Jwts.parserBuilder()
-                    .setSigningKey(getSignKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-            log.debug("Successfully extracted username: {}", username);
-            return username;
-        } catch (Exception e) {
-            log.error("Error extracting username from token: {}", e.getMessage());
-            throw e;
-        }
+    public long getExpirationMillis() {
+        return jwtExpiration;
     }
 
-    public Boolean validateToken(String token){
-        log.debug("Validating token: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSignKey())
-                    .build()
-                    .parseClaimsJws(token);
-            log.debug("Token validation successful");
-            return true;
-        }catch (ExpiredJwtException e){
-            log.warn("Token expired at {}", e.getClaims() != null ? e.getClaims().getExpiration() : "unknown");
-            return false;
-        }catch (JwtException e){
-            log.warn("Token validation failed: {}", e.getMessage());
-            return false;
+    /**
+     * Token'ı tek seferde doğrular ve claim'lerini döner. Aynı token exp
+     * anına kadar tekrar parse edilmez. Geçersiz veya süresi dolmuşsa
+     * JwtException (ExpiredJwtException) fırlatır.
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verified.getIfPresent(token);
+        if (cached != null && cached.expiresAt().after(new Date())) {
+            return cached;
         }
-
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        VerifiedToken result = new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims);
+        if (result.expiresAt() != null) {
+            verified.put(token, result);
+        }
+        return result;
     }
 }
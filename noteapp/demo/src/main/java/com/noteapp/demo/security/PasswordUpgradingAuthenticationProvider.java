@@ -0,0 +1,46 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.exception.PasswordHashingBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Eski maliyetli hash'i başarılı login'de yeniden yazar; ancak yükseltme en
+ * iyi çabadır. Parola zaten doğrulandığı için hash havuzu doluysa
+ * (PasswordHashingBusyException) login 429 almaz, yükseltme sonraki girişe kalır.
+ */
+@Slf4j
+public class PasswordUpgradingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+
+    public PasswordUpgradingAuthenticationProvider(UserDetailsService userDetailsService,
+                                                   PasswordEncoder passwordEncoder,
+                                                   UserDetailsPasswordService userDetailsPasswordService) {
+        super(userDetailsService);
+        // Üst sınıfın kendi yükseltmesi kapalı kalsın diye password service ona verilmez
+        setPasswordEncoder(passwordEncoder);
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            try {
+                String newPassword = passwordEncoder.encode(authentication.getCredentials().toString());
+                user = userDetailsPasswordService.updatePassword(user, newPassword);
+            } catch (PasswordHashingBusyException e) {
+                log.debug("Password hash upgrade skipped for {}: hashing pool is busy", user.getUsername());
+            }
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -0,0 +1,42 @@
+package com.noteapp.demo.security;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * noteapp.rate-limit.*: route bütçeleri sırayla eşlenir, ilk eşleşen kullanılır.
+ * Hiçbiri eşleşmezse istek sınırlanmaz. Geçersiz bütçe (capacity veya
+ * refillPerSecond <= 0) uygulamanın açılmasını durdurur.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "noteapp.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Bu süre istek gelmeyen kovalar silinir (dolu kova ile aynı durum)
+    private Duration idleExpiry = Duration.ofMinutes(10);
+    @Positive
+    private long maximumBuckets = 100_000;
+    @Valid
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        @NotBlank
+        private String pattern;
+        @Positive
+        private int capacity;          // art arda izin verilen istek sayısı
+        @Positive
+        private double refillPerSecond; // kalıcı hız
+        private boolean perIp;          // true: istemci IP'si, false: kullanıcı (yoksa IP)
+    }
+}
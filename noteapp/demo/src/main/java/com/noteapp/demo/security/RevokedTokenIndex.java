@@ -0,0 +1,203 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.model.RevokedToken;
+import com.noteapp.demo.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Süresi dolmadan iptal edilmiş access token'ların (jti) bellek içi kümesi.
+ * Önünde bir Bloom filtresi durur: iptal edilmemiş token'lar birkaç bit
+ * okumasıyla elenir, sadece filtrenin "olabilir" dediği jti'ler kesin kümeye
+ * bakılır. Bellek canlı (exp'i geçmemiş) iptal sayısıyla orantılıdır.
+ * Başlangıçta veritabanından yüklenir; diğer instance'ların iptalleri sync()
+ * ile periyodik olarak çekilir, süresi dolanlar purge() ile atılır.
+ * Okuma kilitsizdir; ekleme ve yeniden kurma bu nesne üzerinde senkronizedir.
+ */
+@Component
+@Slf4j
+public class RevokedTokenIndex {
+
+    // Yavaş commit edilen satırlar son senkronda kaçmasın diye geriye örtüşme
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int minimumCapacity;
+    // jti -> token'ın exp anı
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public RevokedTokenIndex(RevokedTokenRepository revokedTokenRepository,
+                             @Value("${noteapp.token-revocation.expected-revocations:10000}") int minimumCapacity) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.minimumCapacity = Math.max(minimumCapacity, 64);
+        this.bloom = new BloomFilter(this.minimumCapacity);
+    }
+
+    @PostConstruct
+    public void load() {
+        Instant now = Instant.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByExpiresAtAfter(now);
+        synchronized (this) {
+            rows.forEach(row -> revoked.put(row.getJti(), row.getExpiresAt()));
+            rebuild();
+            lastSync = now;
+        }
+        log.info("Loaded {} revoked access tokens", rows.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloom.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Token'ı exp anına kadar iptal eder. Satır çağıranın transaction'ında
+     * yazılır, diğer instance'lar bir sonraki sync'te görür. Bellek içi küme
+     * ancak commit sonrası güncellenir; geri alınan bir iptal token'ı
+     * bu instance'ta geçersiz bırakmaz.
+     */
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (jti == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .revokedAt(now)
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(jti, expiresAt);
+                }
+            });
+        } else {
+            add(jti, expiresAt);
+        }
+    }
+
+    /**
+     * Son senkrondan beri (başka instance'larda da) yapılmış iptalleri ekler
+     */
+    public int sync() {
+        Instant now = Instant.now();
+        List<RevokedToken> rows = revokedTokenRepository
+                .findByRevokedAtAfterAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), now);
+        rows.forEach(row -> add(row.getJti(), row.getExpiresAt()));
+        lastSync = now;
+        return rows.size();
+    }
+
+    /**
+     * Süresi dolmuş jti'leri atar ve filtreyi kalanlardan yeniden kurar;
+     * silinen anahtarların bitleri ancak böyle temizlenir
+     */
+    public synchronized int purge() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        rebuild();
+        return revoked.size();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private synchronized void add(String jti, Instant expiresAt) {
+        if (revoked.put(jti, expiresAt) != null) {
+            return;
+        }
+        if (revoked.size() > bloom.capacity) {
+            rebuild();
+        } else {
+            bloom.put(jti);
+        }
+    }
+
+    // Kilit altında çağrılır; yeni filtre tamamen dolduktan sonra yayınlanır
+    private void rebuild() {
+        BloomFilter next = new BloomFilter(Math.max(minimumCapacity, revoked.size() * 2));
+        revoked.keySet().forEach(next::put);
+        bloom = next;
+    }
+
+    /**
+     * Giriş başına ~10 bit ve 7 hash ile kapasitede ~%1 yanlış pozitif.
+     * Bitler sadece index kilidi altında yazılır; AtomicLongArray okumaların
+     * yayınlanan bitleri görmesini sağlar.
+     */
+    static final class BloomFilter {
+
+        private static final int BITS_PER_ENTRY = 10;
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        final int capacity;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            this.words = new AtomicLongArray((int) (((long) capacity * BITS_PER_ENTRY + 63) >>> 6));
+            this.bitCount = words.length() * 64L;
+        }
+
+        void put(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                words.set(word, words.get(word) | (1L << bit));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a, ardından murmur3 fmix64 ile bitler karıştırılır
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
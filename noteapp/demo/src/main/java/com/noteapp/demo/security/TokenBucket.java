@@ -0,0 +1,39 @@
+package com.noteapp.demo.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kilitsiz token bucket. Durum tek bir long'dur: kovanın yeniden dolu
+ * olacağı teorik an (GCRA). Her istek bu anı bir jeton aralığı kadar ileri
+ * iter; an şimdiden capacity * aralık kadar ileriye geçecekse istek reddedilir.
+ * Güncelleme CAS döngüsüyle yapılır.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * İzin verilirse 0, aksi halde bir jetonun oluşmasına kalan süre (ns)
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
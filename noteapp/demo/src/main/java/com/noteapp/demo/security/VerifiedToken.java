@@ -0,0 +1,32 @@
+package com.noteapp.demo.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * İmzası ve süresi doğrulanmış token'ın claim'leri
+ */
+public record VerifiedToken(String subject, Date expiresAt, Claims claims) {
+
+    /**
+     * jti; jti'si olmayan eski token'larda null
+     */
+    public String id() {
+        return claims.getId();
+    }
+
+    /**
+     * Token'daki kullanıcı; uid claim'i olmayan eski token'larda null
+     */
+    public AuthenticatedUser toPrincipal() {
+        Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        List<?> roles = claims.get(JwtUtil.CLAIM_ROLES, List.class);
+        return new AuthenticatedUser(userId.longValue(), subject, null,
+                roles != null ? roles.stream().map(String::valueOf).toList() : AuthenticatedUser.DEFAULT_ROLES);
+    }
+}
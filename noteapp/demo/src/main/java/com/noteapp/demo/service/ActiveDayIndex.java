@@ -0,0 +1,196 @@
+package com.noteapp.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.noteapp.demo.dto.StreakInfo;
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.event.CategoryDeletedEvent;
+import com.noteapp.demo.event.DailyTotalsRebuiltEvent;
+import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kullanıcı başına, her epoch-day için bir bit tutan aktif gün indeksi.
+ * İlk erişimde daily_totals üzerindeki tek bir distinct-date sorgusuyla
+ * kurulur, sonra aktivite yazmalarıyla güncel tutulur. Streak ve aktif gün
+ * sayıları BitSet'in kelime düzeyindeki işlemleriyle hesaplanır.
+ * Başka düğümlerdeki yazmalar bu düğüme olay olarak gelmez; girişler
+ * yüklendikten max-age sonra veritabanından yeniden kurulur.
+ */
+@Component
+public class ActiveDayIndex {
+
+    private final DailyTotalRepository dailyTotalRepository;
+    private final Cache<Long, ActiveDays> index;
+
+    public ActiveDayIndex(DailyTotalRepository dailyTotalRepository,
+                          @Value("${noteapp.active-day-index.maximum-users:50000}") long maximumUsers,
+                          @Value("${noteapp.active-day-index.expire-after-access:1h}") Duration expireAfterAccess,
+                          @Value("${noteapp.active-day-index.max-age:5m}") Duration maxAge) {
+        this.dailyTotalRepository = dailyTotalRepository;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfter(new LoadAgeExpiry<ActiveDays>(days -> days.loadedAtNanos, expireAfterAccess, maxAge))
+                .build();
+    }
+
+    /**
+     * Mevcut streak (bugünden geriye) ve tüm geçmişteki en uzun streak
+     */
+    public StreakInfo getStreaks(Long userId, LocalDate today) {
+        ActiveDays days = get(userId);
+        long todayDay = today.toEpochDay();
+        return new StreakInfo(days.currentStreak(todayDay), days.longestStreak(todayDay));
+    }
+
+    /**
+     * [startDate, endDate] aralığında aktivite olan gün sayısı
+     */
+    public int countActiveDays(Long userId, LocalDate startDate, LocalDate endDate) {
+        return get(userId).cardinality(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    private ActiveDays get(Long userId) {
+        return index.get(userId, this::load);
+    }
+
+    private ActiveDays load(Long userId) {
+        ActiveDays days = ActiveDays.of(dailyTotalRepository.findActiveDates(userId));
+        days.loadedAtNanos = System.nanoTime();
+        return days;
+    }
+
+    // Önbellek silinmeden önce çalışmalı ki yeniden hesaplanan değerler güncel indeksi görsün
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        Long userId = event.getUserId();
+        // Silinen günlerde başka aktivite kaldı mı; sorgu giriş kilidi dışında, sadece indeks varsa yapılır
+        Map<LocalDate, Boolean> stillActive = new HashMap<>();
+        if (index.asMap().containsKey(userId)) {
+            for (ActivityDelta delta : event.getDeltas()) {
+                if (delta.getCount() <= 0) {
+                    stillActive.computeIfAbsent(delta.getDate(), date -> dailyTotalRepository.existsForDay(userId, date));
+                }
+            }
+        }
+        index.asMap().computeIfPresent(userId, (id, days) -> {
+            // Yükleme değişiklik yayınlandıktan sonra bittiyse commit'i görmüş olabilir:
+            // indeksi bırak, sonraki okuma yeniden kursun (getIfPresent yüklenen girişi görmezdi)
+            if (days.loadedAtNanos - event.getPublishedAtNanos() > 0) {
+                return null;
+            }
+            for (ActivityDelta delta : event.getDeltas()) {
+                Boolean active = delta.getCount() > 0 ? Boolean.TRUE : stillActive.get(delta.getDate());
+                if (active == null) {
+                    return null;
+                }
+                days.set(delta.getDate(), active);
+            }
+            return days;
+        });
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        index.invalidate(event.getUserId());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        index.invalidate(event.getUserId());
+    }
+
+    /**
+     * Bit i, (baseDay + i) gününü temsil eder
+     */
+    static final class ActiveDays {
+
+        private long baseDay;
+        private BitSet bits;
+        private long loadedAtNanos;
+
+        private ActiveDays(long baseDay, BitSet bits) {
+            this.baseDay = baseDay;
+            this.bits = bits;
+        }
+
+        // Desteklenen pencere dışındaki günler tutulmaz; bit dizisi pencereyle sınırlı kalır
+        static ActiveDays of(List<LocalDate> dates) {
+            List<LocalDate> supported = dates.stream().filter(Activity::isSupportedDate).toList();
+            long base = supported.isEmpty() ? 0 : supported.get(0).toEpochDay();
+            BitSet bits = new BitSet();
+            for (LocalDate date : supported) {
+                bits.set((int) (date.toEpochDay() - base));
+            }
+            return new ActiveDays(base, bits);
+        }
+
+        void set(LocalDate date, boolean active) {
+            if (Activity.isSupportedDate(date)) {
+                set(date.toEpochDay(), active);
+            }
+        }
+
+        private synchronized void set(long day, boolean active) {
+            if (bits.isEmpty()) {
+                if (!active) {
+                    return;
+                }
+                baseDay = day;
+            } else if (day < baseDay) {
+                if (!active) {
+                    return;
+                }
+                // Daha eski bir gün: bitleri kaydırarak tabanı geri çek
+                int shift = (int) (baseDay - day);
+                BitSet shifted = new BitSet(bits.length() + shift);
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    shifted.set(i + shift);
+                }
+                bits = shifted;
+                baseDay = day;
+            }
+            bits.set((int) (day - baseDay), active);
+        }
+
+        synchronized int currentStreak(long todayDay) {
+            int today = (int) (todayDay - baseDay);
+            if (today < 0 || !bits.get(today)) {
+                return 0;
+            }
+            return today - bits.previousClearBit(today);
+        }
+
+        synchronized int longestStreak(long todayDay) {
+            int limit = (int) (todayDay - baseDay) + 1;
+            int longest = 0;
+            for (int start = bits.nextSetBit(0); start >= 0 && start < limit; ) {
+                int end = Math.min(bits.nextClearBit(start), limit);
+                longest = Math.max(longest, end - start);
+                start = bits.nextSetBit(end);
+            }
+            return longest;
+        }
+
+        synchronized int cardinality(long fromDay, long toDay) {
+            int from = (int) Math.max(fromDay - baseDay, 0);
+            int to = (int) (toDay - baseDay) + 1;
+            return to > from ? bits.get(from, to).cardinality() : 0;
+        }
+    }
+}
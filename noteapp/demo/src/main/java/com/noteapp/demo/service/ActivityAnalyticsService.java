@@ -1,17 +1,24 @@
 package com.noteapp.demo.service;
 
-import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.dto.CategoryDuration;
+import com.noteapp.demo.dto.DailySeries;
+import com.noteapp.demo.dto.StreakInfo;
+import com.noteapp.demo.dto.TrendBucket;
+import com.noteapp.demo.dto.TrendSeries;
+import com.noteapp.demo.exception.InvalidDateRangeException;
+import com.noteapp.demo.model.TrendGranularity;
 import com.noteapp.demo.model.User;
-import com.noteapp.demo.repository.ActivityRepository;
-import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,150 +27,90 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ActivityAnalyticsService {
     
-    private final ActivityRepository activityRepository;
-    private final UserRepository userRepository;
+    private final DailyTotalRepository dailyTotalRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final ActiveDayIndex activeDayIndex;
+    private final PrefixSumIndex prefixSumIndex;
+    private final AnalyticsCache analyticsCache;
+
+    // Günlük seri ve gün kovaları aralık uzunluğunda dizi ayırır; üst sınır ~10 yıl
+    @Value("${noteapp.analytics.max-range-days:3660}")
+    private long maxRangeDays;
 
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.currentUser();
     }
 
     /**
      * Belirli bir gün için toplam aktivite süresi
      */
     public Double getDailyActivityDuration(LocalDate date) {
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, date, date);
-        return activities.stream()
-                .mapToDouble(Activity::getDurationHours)
-                .sum();
+        return prefixSumIndex.sum(getCurrentUser().getId(), null, date, date);
     }
 
     /**
      * Belirli bir tarih aralığı için toplam aktivite süresi
      */
     public Double getTotalDurationByPeriod(LocalDate startDate, LocalDate endDate) {
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        return activities.stream()
-                .mapToDouble(Activity::getDurationHours)
-                .sum();
+        return prefixSumIndex.sum(getCurrentUser().getId(), null, startDate, endDate);
     }
 
     /**
      * Kategori bazında performans analizi
      */
     public Map<String, Double> getCategoryPerformance(LocalDate startDate, LocalDate endDate) {
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        
-        return activities.stream()
-                .collect(Collectors.groupingBy(
-                        activity -> activity.getCategory().getName(),
-                        Collectors.summingDouble(Activity::getDurationHours)
-                ));
+        Long userId = getCurrentUser().getId();
+        return analyticsCache.get(userId, "category-performance", startDate, endDate, () -> {
+            List<CategoryDuration> totals = dailyTotalRepository.findCategoryTotals(userId, startDate, endDate);
+
+            // Aynı isimli kategoriler tek anahtar altında toplanır
+            return totals.stream()
+                    .collect(Collectors.toMap(
+                            CategoryDuration::getCategoryName,
+                            CategoryDuration::getDurationHours,
+                            Double::sum,
+                            HashMap::new
+                    ));
+        });
     }
 
     /**
      * Haftalık aktivite özeti (son 7 gün)
      */
-    public Map<LocalDate, Double> getWeeklyActivitySummary() {
+    public DailySeries getWeeklyActivitySummary() {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(6);
-        
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        
-        Map<LocalDate, Double> dailySummary = activities.stream()
-                .collect(Collectors.groupingBy(
-                        Activity::getDate,
-                        Collectors.summingDouble(Activity::getDurationHours)
-                ));
-        
-        // Eksik günleri 0.0 ile doldur
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            dailySummary.putIfAbsent(date, 0.0);
-        }
-        
-        return dailySummary;
+        return getDailySummary(getCurrentUser().getId(), startDate, endDate);
     }
 
     /**
      * Aylık aktivite özeti (son 30 gün)
      */
-    public Map<LocalDate, Double> getMonthlyActivitySummary() {
+    public DailySeries getMonthlyActivitySummary() {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(29);
-        
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        
-        Map<LocalDate, Double> dailySummary = activities.stream()
-                .collect(Collectors.groupingBy(
-                        Activity::getDate,
-                        Collectors.summingDouble(Activity::getDurationHours)
-                ));
-        
-        // Eksik günleri 0.0 ile doldur
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            dailySummary.putIfAbsent(date, 0.0);
-        }
-        
-        return dailySummary;
+        return getDailySummary(getCurrentUser().getId(), startDate, endDate);
+    }
+
+    /**
+     * Mevcut ve en uzun streak (aktif gün indeksinden)
+     */
+    public StreakInfo getStreaks() {
+        return activeDayIndex.getStreaks(getCurrentUser().getId(), LocalDate.now());
     }
 
     /**
      * Mevcut streak (kaç gün üst üste aktivite yapıldı)
      */
     public Integer getCurrentStreak() {
-        User user = getCurrentUser();
-        LocalDate currentDate = LocalDate.now();
-        int streak = 0;
-        
-        while (true) {
-            List<Activity> activities = activityRepository.findByUserAndDateBetween(user, currentDate, currentDate);
-            if (activities.isEmpty()) {
-                break;
-            }
-            streak++;
-            currentDate = currentDate.minusDays(1);
-        }
-        
-        return streak;
+        return getStreaks().getCurrentStreak();
     }
 
     /**
-     * En uzun streak
+     * En uzun streak (tüm geçmiş)
      */
     public Integer getLongestStreak() {
-        User user = getCurrentUser();
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(365); // Son 1 yıl
-        
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        
-        Map<LocalDate, Boolean> activeDays = activities.stream()
-                .collect(Collectors.toMap(
-                        Activity::getDate,
-                        activity -> true,
-                        (existing, replacement) -> existing
-                ));
-        
-        int maxStreak = 0;
-        int currentStreak = 0;
-        
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            if (activeDays.containsKey(date)) {
-                currentStreak++;
-                maxStreak = Math.max(maxStreak, currentStreak);
-            } else {
-                currentStreak = 0;
-            }
-        }
-        
-        return maxStreak;
+        return getStreaks().getLongestStreak();
     }
 
     /**
@@ -173,80 +120,109 @@ public class ActivityAnalyticsService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(29);
         
-        Double totalDuration = getTotalDurationByPeriod(startDate, endDate);
-        long activeDays = activityRepository.findByUserAndDateBetween(getCurrentUser(), startDate, endDate)
-                .stream()
-                .map(Activity::getDate)
-                .distinct()
-                .count();
-        
-        return activeDays > 0 ? totalDuration / activeDays : 0.0;
+        Long userId = getCurrentUser().getId();
+        int activeDays = activeDayIndex.countActiveDays(userId, startDate, endDate);
+        return activeDays > 0 ? prefixSumIndex.sum(userId, null, startDate, endDate) / activeDays : 0.0;
     }
 
     /**
      * En aktif gün (en çok aktivite yapılan gün)
      */
     public LocalDate getMostActiveDay(LocalDate startDate, LocalDate endDate) {
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        
-        return activities.stream()
-                .collect(Collectors.groupingBy(
-                        Activity::getDate,
-                        Collectors.summingDouble(Activity::getDurationHours)
-                ))
-                .entrySet()
-                .stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
+        return getDailySummary(getCurrentUser().getId(), startDate, endDate).peakActiveDay();
     }
 
     /**
      * Belirli tarih aralığı için günlük aktivite özeti
      */
-    public Map<LocalDate, Double> getCustomDateRangeSummary(LocalDate startDate, LocalDate endDate) {
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
-        
-        Map<LocalDate, Double> dailySummary = activities.stream()
-                .collect(Collectors.groupingBy(
-                        Activity::getDate,
-                        Collectors.summingDouble(Activity::getDurationHours)
-                ));
-        
-        // Eksik günleri 0.0 ile doldur
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            dailySummary.putIfAbsent(date, 0.0);
-        }
-        
-        return dailySummary;
+    public DailySeries getCustomDateRangeSummary(LocalDate startDate, LocalDate endDate) {
+        return getDailySummary(getCurrentUser().getId(), startDate, endDate);
     }
 
     /**
      * Son 6 ay için aylık toplamları (YYYY-MM -> toplam saat) olarak döner.
      * Eksik ayları 0.0 ile doldurur ve en eskiden yeniye doğru sıralar.
      */
-    public java.util.Map<String, Double> getLastSixMonthsTotals() {
-        java.time.YearMonth currentMonth = java.time.YearMonth.now();
-        java.time.YearMonth startMonth = currentMonth.minusMonths(5);
-        LocalDate startDate = startMonth.atDay(1);
+    public Map<String, Double> getLastSixMonthsTotals() {
+        YearMonth currentMonth = YearMonth.now();
+        LocalDate startDate = currentMonth.minusMonths(5).atDay(1);
         LocalDate endDate = currentMonth.atEndOfMonth();
 
-        User user = getCurrentUser();
-        List<Activity> activities = activityRepository.findByUserAndDateBetween(user, startDate, endDate);
+        LinkedHashMap<String, Double> ordered = new LinkedHashMap<>();
+        for (TrendBucket bucket : getTrends(startDate, endDate, TrendGranularity.MONTH, null).getBuckets()) {
+            ordered.put(YearMonth.from(bucket.getBucketStart()).toString(), bucket.getDurationHours()); // YYYY-MM
+        }
+        return ordered;
+    }
+
+    /**
+     * [startDate, endDate] aralığını verilen kova boyutunda toplar. Kovalar
+     * date_trunc sınırlarına hizalıdır; ilk ve son kova aralık dışına taşabilir
+     * ama sadece aralık içindeki günler sayılır. categoryId null ise tüm kategoriler.
+     */
+    public TrendSeries getTrends(LocalDate startDate, LocalDate endDate, TrendGranularity granularity, Long categoryId) {
+        checkRange(startDate, endDate);
+        Long userId = getCurrentUser().getId();
+        return analyticsCache.get(userId, "trends-" + granularity, categoryId, startDate, endDate, () -> {
+            Map<LocalDate, Double> totals = new HashMap<>();
+            for (Object[] row : dailyTotalRepository.findBucketTotals(
+                    userId, granularity.getUnit(), startDate, endDate, categoryId)) {
+                totals.put(toLocalDate(row[0]), ((Number) row[1]).doubleValue());
+            }
+
+            List<TrendBucket> buckets = new ArrayList<>();
+            double total = 0.0;
+            int activeBuckets = 0;
+            TrendBucket peak = null;
+            for (LocalDate bucketStart = granularity.truncate(startDate); !bucketStart.isAfter(endDate);
+                 bucketStart = granularity.next(bucketStart)) {
+                TrendBucket bucket = new TrendBucket(bucketStart, totals.getOrDefault(bucketStart, 0.0));
+                buckets.add(bucket);
+                total += bucket.getDurationHours();
+                if (bucket.getDurationHours() > 0) {
+                    activeBuckets++;
+                    if (peak == null || bucket.getDurationHours() > peak.getDurationHours()) {
+                        peak = bucket;
+                    }
+                }
+            }
 
-        java.util.Map<String, Double> totals = activities.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        a -> java.time.YearMonth.from(a.getDate()).toString(), // YYYY-MM
-                        java.util.stream.Collectors.summingDouble(Activity::getDurationHours)
-                ));
+            return TrendSeries.builder()
+                    .granularity(granularity)
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .categoryId(categoryId)
+                    .buckets(buckets)
+                    .totalDuration(total)
+                    .averageDuration(total / buckets.size())
+                    .peakBucket(peak != null ? peak.getBucketStart() : null)
+                    .peakValue(peak != null ? peak.getDurationHours() : 0.0)
+                    .activeBuckets(activeBuckets)
+                    .totalBuckets(buckets.size())
+                    .build();
+        });
+    }
+
+    // Native sorgudaki date sütunu sürücüye göre java.sql.Date veya LocalDate gelir
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
 
-        java.util.LinkedHashMap<String, Double> ordered = new java.util.LinkedHashMap<>();
-        for (java.time.YearMonth m = startMonth; !m.isAfter(currentMonth); m = m.plusMonths(1)) {
-            String key = m.toString(); // YYYY-MM
-            ordered.put(key, totals.getOrDefault(key, 0.0));
+    /**
+     * Gün bazında toplamlar; aktivite olmayan günler 0.0
+     */
+    private DailySeries getDailySummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        checkRange(startDate, endDate);
+        return analyticsCache.get(userId, "daily-summary", startDate, endDate,
+                () -> DailySeries.of(startDate, endDate, dailyTotalRepository.findDailyTotals(userId, startDate, endDate)));
+    }
+
+    private void checkRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException("Invalid date range");
+        }
+        if (endDate.toEpochDay() - startDate.toEpochDay() + 1 > maxRangeDays) {
+            throw new InvalidDateRangeException("Date range must not exceed " + maxRangeDays + " days");
         }
-        return ordered;
     }
 }
@@ -0,0 +1,133 @@
+package com.noteapp.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noteapp.demo.dto.ActivityResponse;
+import com.noteapp.demo.model.ActivityFileFormat;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.ActivityRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Aktiviteleri veritabanı imlecinden okuyup satır satır yanıta yazar.
+ * Yanıt gövdesi async thread'de çalıştığı için kullanıcı istek thread'inde
+ * çözülür; imleç gövde içinde açılan salt okunur transaction'da tutulur.
+ * Bellekte hiçbir zaman fetch size'dan fazla satır bulunmaz.
+ */
+@Service
+public class ActivityExportService {
+
+    private static final String CSV_HEADER = "id,categoryId,categoryName,date,durationHours,createdAt";
+    // Aralık verilmezse kullanıcının tüm geçmişi (user_id, date) indeksinden okunur
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final ActivityRepository activityRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int flushEvery;
+
+    public ActivityExportService(ActivityRepository activityRepository,
+                                 CurrentUserResolver currentUserResolver,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${noteapp.activity-export.flush-every:1000}") int flushEvery) {
+        this.activityRepository = activityRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.flushEvery = flushEvery;
+    }
+
+    private User getCurrentUser() {
+        return currentUserResolver.currentUser();
+    }
+
+    public StreamingResponseBody export(ActivityFileFormat format, LocalDate startDate, LocalDate endDate) {
+        Long userId = getCurrentUser().getId();
+        LocalDate from = startDate != null ? startDate : MIN_DATE;
+        LocalDate to = endDate != null ? endDate : MAX_DATE;
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Invalid date range");
+        }
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ActivityResponse> rows = activityRepository.streamResponsesByUserId(userId, from, to)) {
+                    write(rows.iterator(), format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    private void write(Iterator<ActivityResponse> rows, ActivityFileFormat format, Writer writer) throws IOException {
+        if (format == ActivityFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long written = 0;
+        while (rows.hasNext()) {
+            ActivityResponse row = rows.next();
+            if (format == ActivityFileFormat.CSV) {
+                writeCsv(row, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+            }
+            writer.write('\n');
+
+            // Projeksiyon entity yönetmez; yine de oturum ve tampon büyümesin
+            if (++written % flushEvery == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+    }
+
+    private void writeCsv(ActivityResponse row, Writer writer) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getCategoryId()));
+        writer.write(',');
+        writer.write(csvField(row.getCategoryName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getDate()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getDurationHours()));
+        writer.write(',');
+        writer.write(row.getCreatedAt() != null ? row.getCreatedAt().toString() : "");
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
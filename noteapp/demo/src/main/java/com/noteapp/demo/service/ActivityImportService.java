@@ -0,0 +1,296 @@
+package com.noteapp.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noteapp.demo.dto.ActivityImportResult;
+import com.noteapp.demo.dto.ActivityRequest;
+import com.noteapp.demo.dto.ImportRowError;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.exception.InvalidImportFileException;
+import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.model.ActivityFileFormat;
+import com.noteapp.demo.model.Category;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.ActivityRepository;
+import com.noteapp.demo.repository.CategoryRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * CSV (RFC 4180) veya NDJSON gövdesini kayıt kayıt okuyup aktiviteleri JDBC
+ * batch'leri halinde ekler. Kategoriler bir kez yüklenir; hatalı satırlar
+ * atlanıp raporlanır. Gövde transaction dışında okunur: her batch kendi
+ * transaction'ında kaydedilir ve günlük toplam/hedef ilerlemeleri o batch'in
+ * gün/kategori başına birleştirilmiş farklarıyla aynı transaction'da
+ * güncellenir. Yavaş bir yükleme bağlantı tutmaz; yarıda kesilen içe
+ * aktarmada önceki batch'ler kalıcıdır.
+ */
+@Service
+public class ActivityImportService {
+
+    private static final List<String> DEFAULT_COLUMNS = List.of("categoryid", "date", "durationhours");
+
+    private final ActivityRepository activityRepository;
+    private final CategoryRepository categoryRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final ActivityService activityService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public ActivityImportService(ActivityRepository activityRepository,
+                                 CategoryRepository categoryRepository,
+                                 CurrentUserResolver currentUserResolver,
+                                 ActivityService activityService,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${noteapp.activity-import.batch-size:50}") int batchSize,
+                                 @Value("${noteapp.activity-import.max-errors:1000}") int maxErrors) {
+        this.activityRepository = activityRepository;
+        this.categoryRepository = categoryRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.activityService = activityService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    private User getCurrentUser() {
+        return currentUserResolver.currentUser();
+    }
+
+    public ActivityImportResult importActivities(Reader body, ActivityFileFormat format) {
+        User user = getCurrentUser();
+        Map<Long, Category> categories = categoryRepository.findByUser(user).stream()
+                .collect(Collectors.toMap(Category::getId, c -> c));
+
+        Import state = new Import(user, categories);
+        try (BufferedReader reader = new BufferedReader(body)) {
+            if (format == ActivityFileFormat.CSV) {
+                readCsv(reader, state);
+            } else {
+                readNdjson(reader, state);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import body", e);
+        }
+        return state.finish();
+    }
+
+    private void readNdjson(BufferedReader reader, Import state) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                state.add(lineNumber, objectMapper.readValue(line, ActivityRequest.class));
+            } catch (JsonProcessingException e) {
+                state.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                state.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Import state) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> columns = null;
+        while (true) {
+            List<String> values;
+            try {
+                values = records.next();
+            } catch (IllegalArgumentException e) {
+                state.reject(records.recordLine(), e.getMessage());
+                return;
+            }
+            if (values == null) {
+                return;
+            }
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            if (columns == null) {
+                columns = csvHeader(values);
+                if (columns != null) {
+                    continue;
+                }
+                columns = DEFAULT_COLUMNS;
+            }
+            try {
+                state.add(records.recordLine(), parseCsv(values, columns));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                state.reject(records.recordLine(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * İlk kayıt sayı ile başlamıyorsa başlık kabul edilir ve sütun sırası ondan okunur
+     */
+    private List<String> csvHeader(List<String> values) {
+        String first = values.get(0).strip();
+        if (!first.isEmpty() && Character.isDigit(first.charAt(0))) {
+            return null;
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : values) {
+            columns.add(column.strip().toLowerCase(Locale.ROOT));
+        }
+        if (!columns.containsAll(DEFAULT_COLUMNS)) {
+            throw new InvalidImportFileException("CSV header must contain categoryId, date and durationHours");
+        }
+        return columns;
+    }
+
+    private ActivityRequest parseCsv(List<String> values, List<String> columns) {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + values.size());
+        }
+        ActivityRequest request = new ActivityRequest();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).strip();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (columns.get(i)) {
+                case "categoryid" -> request.setCategoryId(parseLong(value));
+                case "date" -> request.setDate(LocalDate.parse(value));
+                case "durationhours" -> request.setDurationHours(parseDouble(value));
+                default -> { } // bilinmeyen sütunlar yok sayılır
+            }
+        }
+        return request;
+    }
+
+    private Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid categoryId: " + value);
+        }
+    }
+
+    private Double parseDouble(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid durationHours: " + value);
+        }
+    }
+
+    private record DeltaKey(LocalDate date, Long categoryId) {
+    }
+
+    /**
+     * Tek bir içe aktarmanın birikimi: bekleyen batch, onun birleştirilmiş farkları ve hata raporu
+     */
+    private final class Import {
+
+        private final User user;
+        private final Map<Long, Category> categories;
+        private final List<Activity> batch = new ArrayList<>(batchSize);
+        private final Map<DeltaKey, ActivityDelta> deltas = new LinkedHashMap<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private Import(User user, Map<Long, Category> categories) {
+            this.user = user;
+            this.categories = categories;
+        }
+
+        void add(long lineNumber, ActivityRequest request) {
+            Set<ConstraintViolation<ActivityRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(lineNumber, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            Category category = categories.get(request.getCategoryId());
+            if (category == null) {
+                reject(lineNumber, "Category not found: " + request.getCategoryId());
+                return;
+            }
+
+            batch.add(Activity.builder()
+                    .category(category)
+                    .user(user)
+                    .date(request.getDate())
+                    .durationHours(request.getDurationHours())
+                    .build());
+            deltas.merge(new DeltaKey(request.getDate(), category.getId()),
+                    ActivityDelta.added(request.getDate(), category.getId(), request.getDurationHours()),
+                    (a, b) -> new ActivityDelta(a.getDate(), a.getCategoryId(),
+                            a.getHours() + b.getHours(), a.getCount() + b.getCount()));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowError(lineNumber, message));
+            }
+        }
+
+        // Batch tek JDBC batch'i olarak kendi transaction'ında yazılır, farkları aynı transaction'da uygulanır
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            transaction.executeWithoutResult(status -> {
+                activityRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear();
+                activityService.recordChange(user.getId(), new ArrayList<>(deltas.values()));
+            });
+            imported += batch.size();
+            batch.clear();
+            deltas.clear();
+        }
+
+        ActivityImportResult finish() {
+            flush();
+            return ActivityImportResult.builder()
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.repository.ActivityRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * activities tablosu IDENTITY ile oluşturulmuş veritabanlarında yeni
+ * activities_seq 1'den başlar. Başlangıçta sequence mevcut en büyük id'nin
+ * ilerisine alınır; zaten ilerideyse değişmez. Web sunucusu istek almaya
+ * başlamadan önce çalışır; hizalanmamış sequence ile insert yapılmaz.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "noteapp.activity-sequence-aligner.enabled", havingValue = "true", matchIfMissing = true)
+public class ActivitySequenceAligner implements SmartInitializingSingleton {
+
+    private final ActivityRepository activityRepository;
+
+    // Kayıttaki proxy üzerinden çağrılır; @Transactional uygulanır
+    @Override
+    @Transactional
+    public void afterSingletonsInstantiated() {
+        log.info("activities_seq aligned at {}", activityRepository.alignIdSequence());
+    }
+}
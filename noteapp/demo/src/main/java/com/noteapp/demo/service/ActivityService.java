@@ -2,21 +2,22 @@ package com.noteapp.demo.service;
 
 import com.noteapp.demo.dto.ActivityRequest;
 import com.noteapp.demo.dto.ActivityResponse;
+import com.noteapp.demo.dto.CursorPage;
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
 import com.noteapp.demo.model.Activity;
 import com.noteapp.demo.model.Category;
 import com.noteapp.demo.model.User;
 import com.noteapp.demo.repository.ActivityRepository;
 import com.noteapp.demo.repository.CategoryRepository;
-import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -26,13 +27,13 @@ import org.springframework.data.domain.Pageable;
 public class ActivityService {
     private final ActivityRepository activityRepository;
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final DailyTotalService dailyTotalService;
+    private final GoalProgressService goalProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.currentUser();
     }
 
     public ActivityResponse createActivity(ActivityRequest request) {
@@ -53,6 +54,8 @@ public class ActivityService {
                 .build();
 
         activityRepository.save(activity);
+        recordChange(user.getId(), List.of(
+                ActivityDelta.added(activity.getDate(), category.getId(), activity.getDurationHours())));
         return new ActivityResponse(
                 activity.getId(),
                 activity.getCategory().getId(),
@@ -65,21 +68,50 @@ public class ActivityService {
 
     public Page<ActivityResponse> getUserActivities(Pageable pageable) {
         User user = getCurrentUser();
-        return activityRepository.findByUser(user, pageable)
-                .map(this::mapToResponse);
+        return activityRepository.findResponsesByUserId(user.getId(), pageable);
+    }
+
+    /**
+     * Keyset sayfalama: en yeni aktiviteden geriye, (date, id) sırasıyla
+     */
+    public CursorPage<ActivityResponse> getUserActivities(String cursor, int limit, boolean includeTotal) {
+        User user = getCurrentUser();
+        int size = KeysetCursors.limit(limit);
+        KeysetCursors.DateId key = cursor != null
+                ? KeysetCursors.decodeDateId(cursor)
+                : new KeysetCursors.DateId(KeysetCursors.LATEST_DATE, Long.MAX_VALUE);
+        List<ActivityResponse> rows = activityRepository.findResponsesByUserIdBefore(
+                user.getId(), key.date(), key.id(), KeysetCursors.fetchLimit(size));
+        Long total = includeTotal ? activityRepository.countByUserId(user.getId()) : null;
+        return KeysetCursors.page(rows, size, a -> KeysetCursors.encode(a.getDate(), a.getId()), total);
+    }
+
+    /**
+     * Tarih aralığı için keyset sayfalama, (date, id) artan sırada
+     */
+    public CursorPage<ActivityResponse> getUserActivitiesByDateRange(LocalDate startDate, LocalDate endDate,
+                                                                     String cursor, int limit, boolean includeTotal) {
+        User user = getCurrentUser();
+        int size = KeysetCursors.limit(limit);
+        KeysetCursors.DateId key = cursor != null
+                ? KeysetCursors.decodeDateId(cursor)
+                : new KeysetCursors.DateId(startDate, 0L);
+        List<ActivityResponse> rows = activityRepository.findResponsesByUserIdAndDateBetweenAfter(
+                user.getId(), startDate, endDate, key.date(), key.id(), KeysetCursors.fetchLimit(size));
+        Long total = includeTotal
+                ? activityRepository.countByUserIdAndDateBetween(user.getId(), startDate, endDate)
+                : null;
+        return KeysetCursors.page(rows, size, a -> KeysetCursors.encode(a.getDate(), a.getId()), total);
     }
 
     public List<ActivityResponse> getUserActivitiesByDateRange(LocalDate startDate, LocalDate endDate) {
         User user = getCurrentUser();
-        return activityRepository.findByUserAndDateBetween(user, startDate, endDate)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return activityRepository.findResponsesByUserIdAndDateBetween(user.getId(), startDate, endDate);
     }
 
     public ActivityResponse getActivityById(Long id) {
         User user = getCurrentUser();
-        Activity activity = activityRepository.findById(id)
+        Activity activity = activityRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new RuntimeException("Activity not found"));
 
         if (!activity.getUser().getId().equals(user.getId())) {
@@ -105,11 +137,16 @@ public class ActivityService {
             throw new RuntimeException("You can only use your own categories");
         }
 
+        ActivityDelta removed = ActivityDelta.removed(
+                activity.getDate(), activity.getCategory().getId(), activity.getDurationHours());
+
         activity.setCategory(category);
         activity.setDate(request.getDate());
         activity.setDurationHours(request.getDurationHours());
 
         activityRepository.save(activity);
+        recordChange(user.getId(), List.of(removed,
+                ActivityDelta.added(activity.getDate(), category.getId(), activity.getDurationHours())));
         return mapToResponse(activity);
     }
 
@@ -123,6 +160,18 @@ public class ActivityService {
         }
 
         activityRepository.delete(activity);
+        recordChange(user.getId(), List.of(
+                ActivityDelta.removed(activity.getDate(), activity.getCategory().getId(), activity.getDurationHours())));
+    }
+
+    /**
+     * Günlük toplamları ve hedef ilerlemelerini aynı transaction içinde günceller
+     * ve değişikliği yayınlar (toplu içe aktarma da bunu kullanır)
+     */
+    void recordChange(Long userId, List<ActivityDelta> deltas) {
+        dailyTotalService.apply(userId, deltas);
+        goalProgressService.apply(userId, deltas);
+        eventPublisher.publishEvent(new ActivityChangedEvent(userId, deltas));
     }
 
     private ActivityResponse mapToResponse(Activity activity) {
@@ -0,0 +1,172 @@
+package com.noteapp.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.event.CategoryDeletedEvent;
+import com.noteapp.demo.event.DailyTotalsRebuiltEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Analitik sonuçları için kullanıcı ve tarih penceresi bazlı, boyut ve
+ * süre sınırlı önbellek.
+ * Yazma işlemleri commit edildikten sonra sadece değişen günü kapsayan
+ * pencereler silinir; kullanıcı başına anahtar indeksi sayesinde sadece o
+ * kullanıcının anahtarlarına bakılır, tüm önbellek taranmaz. Hit/miss/eviction sayaçları "cache.*{cache=analytics}"
+ * metrikleri olarak yayınlanır.
+ */
+@Component
+public class AnalyticsCache {
+
+    private final Cache<Key, Object> cache;
+    // Önbellekteki anahtarlar kullanıcıya göre; yükleme ve silme ile aynı anahtar kilidi altında güncellenir
+    private final Map<Long, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    // Kullanıcının verisinin son değiştiği an (System.nanoTime); kilit dışında hesaplanan sonuçların tazeliği için
+    private final Cache<Long, Long> changedAtNanos;
+
+    public AnalyticsCache(@Value("${noteapp.analytics-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${noteapp.analytics-cache.ttl:10m}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // Boyut/süre tahliyesi senkron dinlenir; açık silmeler remove() üzerinden geçer
+                .evictionListener((Key key, Object value, RemovalCause cause) -> unindex(key))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "analytics");
+        this.changedAtNanos = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Kullanıcının [startDate, endDate] penceresine bağlı bir sonucu döner.
+     * startDate null ise pencere geçmişe doğru sınırsızdır (ör. streak).
+     */
+    public <T> T get(Long userId, String query, LocalDate startDate, LocalDate endDate, Supplier<T> loader) {
+        return get(userId, query, null, startDate, endDate, loader);
+    }
+
+    /**
+     * categoryId verilirse sadece o kategorideki değişiklikler sonucu geçersiz kılar
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String query, Long categoryId, LocalDate startDate, LocalDate endDate,
+                     Supplier<T> loader) {
+        Key key = new Key(userId, query, categoryId, startDate, endDate);
+        return (T) cache.get(key, k -> {
+            Object value = loader.get();
+            index(k);
+            return value;
+        });
+    }
+
+    /**
+     * get gibi, ama yükleyici önbellek kilidi dışında çalışır: uzun süren veya süre
+     * sınırlı hesaplar aynı anahtarı bekleyenleri ve silmeleri bloklamaz. Hesap
+     * sürerken kullanıcının verisi değiştiyse sonuç döner ama önbelleğe yazılmaz.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(Long userId, String query, LocalDate startDate, LocalDate endDate, Supplier<T> loader) {
+        Key key = new Key(userId, query, null, startDate, endDate);
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long startedAtNanos = System.nanoTime();
+        T value = loader.get();
+        cache.asMap().computeIfAbsent(key, k -> {
+            Long changedAt = changedAtNanos.getIfPresent(userId);
+            if (changedAt != null && changedAt - startedAtNanos >= 0) {
+                return null;
+            }
+            index(k);
+            return value;
+        });
+        return value;
+    }
+
+    public void evict(Long userId, String query, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        remove(new Key(userId, query, categoryId, startDate, endDate));
+    }
+
+    public void evictUser(Long userId) {
+        changedAtNanos.put(userId, System.nanoTime());
+        userKeys(userId).forEach(this::remove);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        // Silmeden önce işaretlenir: bu andan önce başlamış kilit dışı hesaplar yazılmaz
+        changedAtNanos.put(event.getUserId(), System.nanoTime());
+        for (Key key : userKeys(event.getUserId())) {
+            if (event.getDeltas().stream().anyMatch(key::covers)) {
+                remove(key);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    private List<Key> userKeys(Long userId) {
+        Set<Key> keys = keysByUser.get(userId);
+        return keys != null ? List.copyOf(keys) : List.of();
+    }
+
+    // Değer ve indeks kaydı aynı anahtar kilidi altında kaldırılır; araya yükleme giremez
+    private void remove(Key key) {
+        cache.asMap().computeIfPresent(key, (k, value) -> {
+            unindex(k);
+            return null;
+        });
+    }
+
+    private void index(Key key) {
+        keysByUser.compute(key.userId(), (userId, keys) -> {
+            Set<Key> result = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void unindex(Key key) {
+        keysByUser.computeIfPresent(key.userId(), (userId, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Key(Long userId, String query, Long categoryId, LocalDate startDate, LocalDate endDate) {
+
+        boolean covers(ActivityDelta delta) {
+            LocalDate date = delta.getDate();
+            return (categoryId == null || categoryId.equals(delta.getCategoryId()))
+                    && (startDate == null || !date.isBefore(startDate))
+                    && (endDate == null || !date.isAfter(endDate));
+        }
+    }
+}
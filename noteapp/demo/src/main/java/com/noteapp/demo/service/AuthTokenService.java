@@ -0,0 +1,172 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.dto.AuthResponse;
+import com.noteapp.demo.exception.InvalidRefreshTokenException;
+import com.noteapp.demo.model.RefreshToken;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.RefreshTokenRepository;
+import com.noteapp.demo.repository.RevokedTokenRepository;
+import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.security.AuthenticatedUser;
+import com.noteapp.demo.security.IssuedToken;
+import com.noteapp.demo.security.JwtUtil;
+import com.noteapp.demo.security.RevokedTokenIndex;
+import com.noteapp.demo.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Access/refresh token çiftlerini üretir ve yeniler. Refresh token'lar tek
+ * kullanımlıktır: yenilemede kullanılan işaretlenir ve aynı aileden yenisi
+ * verilir. Kullanılmış bir token tekrar gelirse çalındığı varsayılır; aile ve
+ * ailenin hâlâ geçerli access token'ları iptal edilir.
+ * Tüm iptaller (tek token, aile, kullanıcı) RevokedTokenIndex üzerinden
+ * veritabanına yazılır; yeniden başlatmada kaybolmaz, diğer instance'lara sync ile ulaşır.
+ */
+@Service
+@Slf4j
+@Transactional
+public class AuthTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final Duration refreshExpiration;
+
+    public AuthTokenService(RefreshTokenRepository refreshTokenRepository,
+                            RevokedTokenRepository revokedTokenRepository,
+                            UserRepository userRepository,
+                            JwtUtil jwtUtil,
+                            RevokedTokenIndex revokedTokenIndex,
+                            @Value("${jwt.refresh-expiration:2592000000}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.refreshExpiration = Duration.ofMillis(refreshExpiration);
+    }
+
+    /**
+     * Giriş/kayıt sonrası yeni bir token ailesi başlatır
+     */
+    public AuthResponse issue(AuthenticatedUser principal) {
+        return issue(principal, userRepository.getReferenceById(principal.getId()), UUID.randomUUID().toString());
+    }
+
+    // Aile iptali commit edilmeli; istisna sadece istemciye 401 döndürmek için
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public AuthResponse refresh(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findForUpdate(hash(refreshToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+        if (current.getUsedAt() != null || Boolean.TRUE.equals(current.getRevoked())) {
+            log.warn("Refresh token reuse for user {}, revoking family {}",
+                    current.getUser().getId(), current.getFamilyId());
+            revokeFamily(current);
+            throw new InvalidRefreshTokenException();
+        }
+        Instant now = Instant.now();
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException();
+        }
+        current.setUsedAt(now);
+
+        // Roller yenilemede güncel kullanıcıdan okunur
+        User user = current.getUser();
+        return issue(AuthenticatedUser.of(user), user, current.getFamilyId());
+    }
+
+    /**
+     * Verilen access token'ı exp anına kadar, refresh token'ın ailesini tamamen iptal eder
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                VerifiedToken verified = jwtUtil.verify(accessToken);
+                AuthenticatedUser principal = verified.toPrincipal();
+                revokedTokenIndex.revoke(verified.id(), principal != null ? principal.getId() : null,
+                        verified.expiresAt().toInstant());
+            } catch (JwtException | IllegalArgumentException e) {
+                // Süresi dolmuş veya geçersiz token zaten kullanılamaz
+                log.debug("Logout with unusable access token: {}", e.getMessage());
+            }
+        }
+        if (refreshToken != null) {
+            refreshTokenRepository.findForUpdate(hash(refreshToken)).ifPresent(this::revokeFamily);
+        }
+    }
+
+    /**
+     * Kullanıcının tüm oturumlarını kapatır: bütün refresh token'ları ve onlarla
+     * verilmiş, süresi dolmamış access token'ları iptal edilir. Tüm cihazlardan
+     * çıkışta; parola değişikliği veya hesap silme eklendiğinde de çağrılmalı.
+     */
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+        for (RefreshToken token : refreshTokenRepository.findByUserIdAndAccessExpiresAtAfter(userId, Instant.now())) {
+            revokedTokenIndex.revoke(token.getAccessTokenId(), userId, token.getAccessExpiresAt());
+        }
+        log.info("Revoked all sessions of user {}", userId);
+    }
+
+    /**
+     * Süresi dolmuş refresh token ve iptal satırlarını siler
+     */
+    public int deleteExpired() {
+        Instant now = Instant.now();
+        return refreshTokenRepository.deleteExpired(now) + revokedTokenRepository.deleteExpired(now);
+    }
+
+    private void revokeFamily(RefreshToken token) {
+        Long userId = token.getUser().getId();
+        refreshTokenRepository.revokeFamily(token.getFamilyId());
+        for (RefreshToken member : refreshTokenRepository
+                .findByFamilyIdAndAccessExpiresAtAfter(token.getFamilyId(), Instant.now())) {
+            revokedTokenIndex.revoke(member.getAccessTokenId(), userId, member.getAccessExpiresAt());
+        }
+    }
+
+    private AuthResponse issue(AuthenticatedUser principal, User user, String familyId) {
+        IssuedToken access = jwtUtil.issue(principal);
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(hash(refreshToken))
+                .familyId(familyId)
+                .expiresAt(Instant.now().plus(refreshExpiration))
+                .accessTokenId(access.id())
+                .accessExpiresAt(access.expiresAt())
+                .build());
+        return new AuthResponse(access.value(), refreshToken, jwtUtil.getExpirationMillis() / 1000);
+    }
+
+    // Veritabanında token değil özeti tutulur; sızan tablo ile oturum açılamaz
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -2,14 +2,15 @@ package com.noteapp.demo.service;
 
 import com.noteapp.demo.dto.CategoryRequest;
 import com.noteapp.demo.dto.CategoryResponse;
+import com.noteapp.demo.dto.CursorPage;
+import com.noteapp.demo.event.CategoryDeletedEvent;
 import com.noteapp.demo.model.Category;
 import com.noteapp.demo.model.User;
 import com.noteapp.demo.repository.CategoryRepository;
-import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,13 +23,13 @@ import org.springframework.data.domain.Pageable;
 @Transactional
 public class CategoryService {
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final DailyTotalService dailyTotalService;
+    private final GoalProgressService goalProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.currentUser();
     }
 
     public CategoryResponse createCategory(CategoryRequest request) {
@@ -49,6 +50,19 @@ public class CategoryService {
                 .map(c -> new CategoryResponse(c.getId(), c.getName()));
     }
 
+    /**
+     * Keyset sayfalama: oluşturulma (id) sırasıyla
+     */
+    public CursorPage<CategoryResponse> getUserCategories(String cursor, int limit, boolean includeTotal) {
+        User user = getCurrentUser();
+        int size = KeysetCursors.limit(limit);
+        long afterId = cursor != null ? KeysetCursors.decodeId(cursor) : 0L;
+        List<CategoryResponse> rows = categoryRepository.findResponsesByUserIdAfter(
+                user.getId(), afterId, KeysetCursors.fetchLimit(size));
+        Long total = includeTotal ? categoryRepository.countByUserId(user.getId()) : null;
+        return KeysetCursors.page(rows, size, c -> KeysetCursors.encode(c.getId()), total);
+    }
+
     public void deleteCategory(Long id) {
         User user = getCurrentUser();
         Category category = categoryRepository.findById(id)
@@ -58,7 +72,12 @@ public class CategoryService {
             throw new RuntimeException("You can only delete your own categories");
         }
 
+        // Kategoriyle birlikte aktiviteleri de silinir (cascade)
         categoryRepository.delete(category);
+        dailyTotalService.removeCategory(user.getId(), category.getId());
+        // Tüm kategorileri kapsayan hedefler bu kategorinin saatlerini kaybeder
+        goalProgressService.resyncUser(user.getId());
+        eventPublisher.publishEvent(new CategoryDeletedEvent(user.getId(), category.getId()));
     }
 
 }
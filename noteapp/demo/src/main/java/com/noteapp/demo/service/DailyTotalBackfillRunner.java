@@ -0,0 +1,75 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Web sunucusu istek almaya başlamadan önce daily_totals rollup'ını
+ * tamamlar. Aktivitesi olup rollup satırı olmayan kullanıcılar (ilk dağıtım
+ * veya yarıda kalmış bir kurulum) her başlangıçta bulunup yeniden kurulur;
+ * bitene kadar uygulama trafik almaz, analitikler boş tablodan okunmaz.
+ * --rebuild-daily-totals argümanıyla tüm kullanıcılar yeniden kurulur.
+ * Her kullanıcı, hedef ilerlemeleriyle birlikte ayrı bir transaction'da
+ * işlenir; yarıda kalırsa sonraki başlangıç kaldığı yerden devam eder.
+ * İlerlemesi hiç hesaplanmamış hedefler (current_hours null) ancak rollup
+ * tamamlandıktan sonra doldurulur; boş tablodan 0 saat (ve süresi geçmişse
+ * FAILED) yazılmaz.
+ */
+@Component
+@Slf4j
+public class DailyTotalBackfillRunner implements SmartInitializingSingleton {
+
+    static final String REBUILD_OPTION = "rebuild-daily-totals";
+
+    private final ApplicationArguments args;
+    private final UserRepository userRepository;
+    private final DailyTotalService dailyTotalService;
+    private final GoalProgressService goalProgressService;
+    private final TransactionTemplate transaction;
+
+    public DailyTotalBackfillRunner(ApplicationArguments args,
+                                    UserRepository userRepository,
+                                    DailyTotalService dailyTotalService,
+                                    GoalProgressService goalProgressService,
+                                    PlatformTransactionManager transactionManager) {
+        this.args = args;
+        this.userRepository = userRepository;
+        this.dailyTotalService = dailyTotalService;
+        this.goalProgressService = goalProgressService;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        boolean all = args.containsOption(REBUILD_OPTION);
+        List<Long> userIds = all ? userRepository.findAllIds() : userRepository.findIdsMissingDailyTotals();
+        if (!userIds.isEmpty()) {
+            log.info("Rebuilding daily totals for {} users ({})", userIds.size(),
+                    all ? "requested with --" + REBUILD_OPTION : "rollup missing");
+            for (Long userId : userIds) {
+                rebuild(userId);
+            }
+            log.info("Daily totals rebuild finished");
+        }
+
+        int updated = goalProgressService.resyncMissing();
+        if (updated > 0) {
+            log.info("Backfilled progress for {} goals", updated);
+        }
+    }
+
+    // Toplamlar ve onlardan türeyen hedef ilerlemesi birlikte commit edilir
+    void rebuild(Long userId) {
+        transaction.executeWithoutResult(status -> {
+            dailyTotalService.rebuild(userId);
+            goalProgressService.resyncUser(userId);
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.event.DailyTotalsRebuiltEvent;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * daily_totals tablosunu aktivite yazmalarıyla senkron tutar.
+ * Çağıran servisin transaction'ına katılır. Yazmalar kullanıcı satırını
+ * paylaşımlı, yeniden kurulum özel kilitler; böylece yeniden kurulum
+ * sürerken aynı kullanıcının deltaları commit sonrasına bekler.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class DailyTotalService {
+
+    private final DailyTotalRepository dailyTotalRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void apply(Long userId, List<ActivityDelta> deltas) {
+        userRepository.lockForActivityWrite(userId);
+        for (ActivityDelta delta : deltas) {
+            dailyTotalRepository.applyDelta(userId, delta.getDate(), delta.getCategoryId(),
+                    delta.getHours(), delta.getCount());
+            if (delta.getCount() < 0) {
+                dailyTotalRepository.deleteIfEmpty(userId, delta.getDate(), delta.getCategoryId());
+            }
+        }
+    }
+
+    public void removeCategory(Long userId, Long categoryId) {
+        userRepository.lockForActivityWrite(userId);
+        dailyTotalRepository.deleteByCategoryId(categoryId);
+    }
+
+    /**
+     * Kullanıcının toplamlarını aktivite tablosundan yeniden hesaplar. Commit
+     * sonrası DailyTotalsRebuiltEvent ile kullanıcının indeks ve önbellek
+     * girişleri bırakılır; yarım tablodan yüklenmiş girişler kalmaz.
+     */
+    public void rebuild(Long userId) {
+        userRepository.lockForRebuild(userId);
+        dailyTotalRepository.deleteByUserId(userId);
+        dailyTotalRepository.rebuildForUser(userId);
+        eventPublisher.publishEvent(new DailyTotalsRebuiltEvent(userId));
+    }
+}
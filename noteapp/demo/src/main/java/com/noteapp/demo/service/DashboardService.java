@@ -0,0 +1,172 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.dto.ActivityPoint;
+import com.noteapp.demo.dto.DailySeries;
+import com.noteapp.demo.dto.DashboardSummary;
+import com.noteapp.demo.dto.StreakInfo;
+import com.noteapp.demo.exception.DashboardUnavailableException;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard özetini tek sorgu ve tek geçişte hesaplar: son 30 günün
+ * gün/kategori toplamları. Streak'ler aktif gün indeksinden okunur.
+ * Sonuçlar ActivityAnalyticsService metotlarının döndürdükleriyle aynıdır.
+ *
+ * noteapp.dashboard.execution=concurrent olduğunda bağımsız parçalar istek
+ * başına açılan virtual thread'lerde paralel çalışır; süre aşımında veya
+ * bir parça hata verdiğinde diğerleri iptal edilir ve istek beklemeden döner.
+ * JDBC çağrıları kesmeye tepki vermediği için her parça kalan süre kadar
+ * zaman aşımlı bir transaction'da çalışır; sorgular da süre sonunda kesilir.
+ * Özet önbellek kilidi dışında hesaplanıp sonra önbelleğe yazılır.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    // Bugün dahil son 30 gün
+    private static final int WINDOW_DAYS = 30;
+
+    private final DailyTotalRepository dailyTotalRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final ActiveDayIndex activeDayIndex;
+    private final AnalyticsCache analyticsCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${noteapp.dashboard.execution:serial}")
+    private String executionMode;
+
+    @Value("${noteapp.dashboard.deadline:2s}")
+    private Duration deadline;
+
+    private User getCurrentUser() {
+        return currentUserResolver.currentUser();
+    }
+
+    public DashboardSummary getDashboardSummary() {
+        User user = getCurrentUser();
+        LocalDate today = LocalDate.now();
+        // Streak geçmişe bağlı olduğundan pencere başı sınırsız tutulur
+        return analyticsCache.getOrCompute(user.getId(), "dashboard-summary", null, today,
+                () -> "concurrent".equalsIgnoreCase(executionMode)
+                        ? computeConcurrently(user, today)
+                        : buildSummary(loadWindow(user, today), activeDayIndex.getStreaks(user.getId(), today)));
+    }
+
+    private DashboardSummary computeConcurrently(User user, LocalDate today) {
+        SecurityContext context = SecurityContextHolder.getContext();
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        // try-with-resources kullanılmaz: close() iptal edilen görevlerin bitmesini bekler
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("dashboard-", 0).factory());
+        try {
+            ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+            Future<Object> window = submit(completion, context,
+                    () -> withDeadline(deadlineNanos, () -> loadWindow(user, today)));
+            Future<Object> streaks = submit(completion, context,
+                    () -> withDeadline(deadlineNanos, () -> activeDayIndex.getStreaks(user.getId(), today)));
+
+            for (int remaining = 2; remaining > 0; remaining--) {
+                Future<Object> done = completion.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new DashboardUnavailableException("Dashboard summary deadline exceeded");
+                }
+                done.get(); // hata varsa burada fırlar
+            }
+            return buildSummary((Window) window.get(), (StreakInfo) streaks.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DashboardUnavailableException("Dashboard summary interrupted", e);
+        } catch (ExecutionException e) {
+            // Kalan süre sorgu/transaction zaman aşımı olarak verildiği için bunlar da deadline aşımıdır
+            if (e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException) {
+                throw new DashboardUnavailableException("Dashboard summary deadline exceeded", e.getCause());
+            }
+            throw e.getCause() instanceof RuntimeException re
+                    ? re
+                    : new RuntimeException("Dashboard summary failed", e.getCause());
+        } finally {
+            // Başarısız veya süresi dolan isteğin kardeş görevlerini iptal et; bitmeleri beklenmez
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Görevi kalan süre kadar zaman aşımlı, salt okunur bir transaction'da çalıştırır;
+     * JPA sorguları bu süreyi sorgu zaman aşımı olarak alır
+     */
+    private <T> T withDeadline(long deadlineNanos, Supplier<T> task) {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new DashboardUnavailableException("Dashboard summary deadline exceeded");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + 999_999_999L)));
+        return transaction.execute(status -> task.get());
+    }
+
+    private static Future<Object> submit(ExecutorCompletionService<Object> completion, SecurityContext context,
+                                         Callable<Object> task) {
+        return completion.submit(new DelegatingSecurityContextCallable<>(task, context));
+    }
+
+    private Window loadWindow(User user, LocalDate today) {
+        LocalDate windowStart = today.minusDays(WINDOW_DAYS - 1);
+
+        DailySeries daily = new DailySeries(windowStart, today);
+        Map<String, Double> categoryPerformance = new HashMap<>();
+        for (ActivityPoint point : dailyTotalRepository.findPoints(user.getId(), windowStart, today)) {
+            daily.add(point.getDate(), point.getDurationHours());
+            categoryPerformance.merge(point.getCategoryName(), point.getDurationHours(), Double::sum);
+        }
+        return new Window(daily, categoryPerformance);
+    }
+
+    private DashboardSummary buildSummary(Window window, StreakInfo streaks) {
+        DailySeries daily = window.daily();
+        double monthTotal = daily.sum();
+        int activeDays = daily.activeDays();
+
+        return DashboardSummary.builder()
+                .todayDuration(daily.valueAt(WINDOW_DAYS - 1))
+                .weekTotalDuration(daily.sum(WINDOW_DAYS - 7, WINDOW_DAYS))
+                .monthTotalDuration(monthTotal)
+                .currentStreak(streaks.getCurrentStreak())
+                .longestStreak(streaks.getLongestStreak())
+                .averageDailyDuration(activeDays > 0 ? monthTotal / activeDays : 0.0)
+                .mostActiveDay(daily.peakActiveDay())
+                .categoryPerformance(window.categoryPerformance())
+                .weeklyActivitySummary(daily.tail(7))
+                .build();
+    }
+
+    // Son 30 günün gün ve kategori toplamları
+    private record Window(DailySeries daily, Map<String, Double> categoryPerformance) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.model.Goal;
+import com.noteapp.demo.model.GoalStatus;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.repository.GoalRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * goals.current_hours ve goals.status değerlerini aktivite yazmalarıyla
+ * senkron tutar. Çağıran servisin transaction'ına katılır.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class GoalProgressService {
+
+    private final GoalRepository goalRepository;
+    private final DailyTotalRepository dailyTotalRepository;
+
+    /**
+     * Etkilenen hedefler veritabanında kapsam koşuluyla bulunur. Aynı gün ve
+     * kategorideki farklar birleştirilir, birbirini götürenler için sorgu atılmaz.
+     */
+    public void apply(Long userId, List<ActivityDelta> deltas) {
+        Map<DayCategory, Double> hoursByScope = new LinkedHashMap<>();
+        for (ActivityDelta delta : deltas) {
+            hoursByScope.merge(new DayCategory(delta.getDate(), delta.getCategoryId()), delta.getHours(), Double::sum);
+        }
+
+        LocalDate today = LocalDate.now();
+        hoursByScope.forEach((scope, hours) -> {
+            if (hours != 0.0) {
+                goalRepository.addProgress(userId, scope.categoryId(), scope.date(), hours, today);
+            }
+        });
+    }
+
+    /**
+     * Hedefin ilerlemesini kapsamındaki günlük toplamlardan yeniden hesaplar
+     * (kaydetmeden önce, yeni veya kapsamı değişen hedefler için)
+     */
+    public void resync(Goal goal) {
+        Long categoryId = goal.getCategory() != null ? goal.getCategory().getId() : null;
+        goal.setCurrentHours(dailyTotalRepository.sumProgress(
+                goal.getUser().getId(), categoryId, goal.getStartDate(), goal.getEndDate()));
+        refreshStatus(goal);
+    }
+
+    /**
+     * Hedefin durumunu saklanan ilerlemesinden yeniden hesaplar (ör. hedef saat değişince)
+     */
+    public void refreshStatus(Goal goal) {
+        double hours = goal.getCurrentHours() != null ? goal.getCurrentHours() : 0.0;
+        goal.setStatus(statusOf(hours, goal.getTargetHours(), goal.getEndDate(), LocalDate.now()));
+    }
+
+    public void resyncUser(Long userId) {
+        goalRepository.resyncProgressForUser(userId);
+        goalRepository.refreshStatusForUser(userId, LocalDate.now());
+    }
+
+    /**
+     * İlerlemesi veya durumu henüz saklanmamış hedefleri doldurur
+     */
+    public int resyncMissing() {
+        int updated = goalRepository.resyncMissingProgress();
+        return updated + goalRepository.refreshMissingStatus(LocalDate.now());
+    }
+
+    /**
+     * Bitiş tarihi geçmiş ACTIVE hedeflerden bir partiyi kendi transaction'ında
+     * COMPLETED veya FAILED yapar; güncellenen satır sayısını döner
+     */
+    public int expireBatch(LocalDate today, int batchSize) {
+        return goalRepository.expireBatch(today, batchSize);
+    }
+
+    static GoalStatus statusOf(double hours, double targetHours, LocalDate endDate, LocalDate today) {
+        if (hours >= targetHours) {
+            return GoalStatus.COMPLETED;
+        }
+        return today.isAfter(endDate) ? GoalStatus.FAILED : GoalStatus.ACTIVE;
+    }
+
+    private record DayCategory(LocalDate date, Long categoryId) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.model.GoalType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Her çalışmada WEEKLY ve MONTHLY şablonların içinde bulunulan dönem için
+ * hedeflerini üretir. İşlenmiş şablonlar atlandığından sık çalıştırmak
+ * ucuzdur ve kaçırılan dönem sınırları bir sonraki çalışmada telafi edilir.
+ * Metrikler: goals.rollover.templates, goals.rollover.created, goals.rollover.duration (tag: type)
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "noteapp.goal-rollover.enabled", havingValue = "true", matchIfMissing = true)
+public class GoalRolloverJob {
+
+    private static final GoalType[] RECURRING_TYPES = {GoalType.WEEKLY, GoalType.MONTHLY};
+
+    private final GoalRolloverService goalRolloverService;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+
+    public GoalRolloverJob(GoalRolloverService goalRolloverService,
+                           MeterRegistry meterRegistry,
+                           @Value("${noteapp.goal-rollover.chunk-size:1000}") int chunkSize) {
+        this.goalRolloverService = goalRolloverService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${noteapp.goal-rollover.cron:0 5 * * * *}")
+    public void rollover() {
+        LocalDate today = LocalDate.now();
+        for (GoalType type : RECURRING_TYPES) {
+            rollover(type, type.periodStart(today));
+        }
+    }
+
+    void rollover(GoalType type, LocalDate periodStart) {
+        String tag = type.name();
+        Counter templates = meterRegistry.counter("goals.rollover.templates", "type", tag);
+        Counter created = meterRegistry.counter("goals.rollover.created", "type", tag);
+        Timer duration = meterRegistry.timer("goals.rollover.duration", "type", tag);
+
+        long startNanos = System.nanoTime();
+        long templateCount = 0;
+        long createdCount = 0;
+        GoalRolloverService.Chunk chunk;
+        do {
+            chunk = goalRolloverService.rolloverChunk(type, periodStart, chunkSize);
+            templates.increment(chunk.templates());
+            created.increment(chunk.goalsCreated());
+            templateCount += chunk.templates();
+            createdCount += chunk.goalsCreated();
+        } while (chunk.templates() == chunkSize);
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (templateCount > 0) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            log.info("Rolled over {} {} templates into {} goals for period {} in {}s ({} goals/s)",
+                    templateCount, type, createdCount, periodStart, String.format("%.1f", seconds),
+                    Math.round(createdCount / Math.max(seconds, 0.001)));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.GoalsRolledOverEvent;
+import com.noteapp.demo.model.GoalType;
+import com.noteapp.demo.repository.GoalTemplateRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tekrarlayan hedef şablonlarını parça parça yeni döneme taşır. Her parça
+ * ayrı transaction'dır: şablonlar kilitlenir, hedefler tek insert-select ile
+ * üretilir ve şablonlar işlendi olarak işaretlenir. Yarıda kalan iş tekrar
+ * çalıştırıldığında kaldığı yerden devam eder.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class GoalRolloverService {
+
+    private final GoalTemplateRepository goalTemplateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Chunk rolloverChunk(GoalType type, LocalDate periodStart, int chunkSize) {
+        List<Long> templateIds = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        for (Object[] row : goalTemplateRepository.lockDueChunk(type.name(), periodStart, chunkSize)) {
+            templateIds.add(((Number) row[0]).longValue());
+            userIds.add(((Number) row[1]).longValue());
+        }
+        if (templateIds.isEmpty()) {
+            return new Chunk(0, 0);
+        }
+
+        int created = goalTemplateRepository.instantiate(templateIds, periodStart, type.periodEnd(periodStart));
+        goalTemplateRepository.markRolledOver(templateIds, periodStart);
+        eventPublisher.publishEvent(new GoalsRolledOverEvent(userIds));
+        return new Chunk(templateIds.size(), created);
+    }
+
+    /**
+     * Bir parçada işlenen şablon ve üretilen hedef sayısı
+     */
+    public record Chunk(int templates, int goalsCreated) {
+    }
+}
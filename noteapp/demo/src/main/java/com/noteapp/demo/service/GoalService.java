@@ -1,22 +1,26 @@
 package com.noteapp.demo.service;
 
+import com.noteapp.demo.dto.CursorPage;
 import com.noteapp.demo.dto.GoalRequest;
 import com.noteapp.demo.dto.GoalResponse;
+import com.noteapp.demo.dto.GoalScope;
+import com.noteapp.demo.dto.GoalStatusCount;
+import com.noteapp.demo.dto.GoalTemplateResponse;
+import com.noteapp.demo.event.GoalChangedEvent;
 import com.noteapp.demo.model.*;
-import com.noteapp.demo.repository.ActivityRepository;
 import com.noteapp.demo.repository.CategoryRepository;
 import com.noteapp.demo.repository.GoalRepository;
-import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.repository.GoalTemplateRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -26,15 +30,14 @@ import org.springframework.data.domain.Pageable;
 public class GoalService {
 
     private final GoalRepository goalRepository;
-    private final UserRepository userRepository;
+    private final GoalTemplateRepository goalTemplateRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final CategoryRepository categoryRepository;
-    private final ActivityRepository activityRepository;
+    private final GoalProgressService goalProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.currentUser();
     }
 
     public GoalResponse createGoal(GoalRequest request) {
@@ -42,15 +45,10 @@ public class GoalService {
 
         LocalDate startDate;
         LocalDate endDate;
-        if (request.getType() == GoalType.WEEKLY) {
-            // Bu haftanın pazartesi - pazar aralığı
-            LocalDate today = LocalDate.now();
-            startDate = today.minusDays((today.getDayOfWeek().getValue() + 6) % 7);
-            endDate = startDate.plusDays(6);
-        } else if (request.getType() == GoalType.MONTHLY) {
-            YearMonth ym = YearMonth.now();
-            startDate = ym.atDay(1);
-            endDate = ym.atEndOfMonth();
+        if (request.getType() != GoalType.CUSTOM) {
+            // WEEKLY: bu haftanın pazartesi - pazar aralığı, MONTHLY: bu ay
+            startDate = request.getType().periodStart(LocalDate.now());
+            endDate = request.getType().periodEnd(startDate);
         } else { // CUSTOM
             startDate = request.getStartDate();
             endDate = request.getEndDate();
@@ -68,9 +66,27 @@ public class GoalService {
             }
         }
 
+        GoalTemplate template = null;
+        if (Boolean.TRUE.equals(request.getRecurring())) {
+            if (request.getType() == GoalType.CUSTOM) {
+                throw new RuntimeException("Only WEEKLY and MONTHLY goals can be recurring");
+            }
+            // İlk dönem burada üretilir; sonrakiler rollover işi tarafından
+            template = goalTemplateRepository.save(GoalTemplate.builder()
+                    .user(user)
+                    .category(category)
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .type(request.getType())
+                    .targetHours(request.getTargetHours())
+                    .lastPeriodStart(startDate)
+                    .build());
+        }
+
         Goal goal = Goal.builder()
                 .user(user)
                 .category(category)
+                .template(template)
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .type(request.getType())
@@ -79,24 +95,89 @@ public class GoalService {
                 .endDate(endDate)
                 .build();
 
+        goalProgressService.resync(goal);
         goalRepository.save(goal);
-        return mapToResponse(goal, 0.0, GoalStatus.ACTIVE);
+        eventPublisher.publishEvent(new GoalChangedEvent(user.getId(), goal.getId(), null, scope(goal)));
+        return mapToResponse(goal);
     }
 
-    public Page<GoalResponse> getUserGoals(Pageable pageable) {
+    /**
+     * status verilirse sadece o durumdaki hedefler (ör. aktif hedeflerim)
+     */
+    public Page<GoalResponse> getUserGoals(GoalStatus status, Pageable pageable) {
         User user = getCurrentUser();
-        return goalRepository.findByUser(user, pageable)
-                .map(this::mapToResponseWithComputedStatus);
+        Page<Goal> goals = status != null
+                ? goalRepository.findByUserAndStatus(user, status, pageable)
+                : goalRepository.findByUser(user, pageable);
+        return goals.map(this::mapToResponse);
+    }
+
+    /**
+     * Keyset sayfalama: en yeni hedeften geriye, id sırasıyla
+     */
+    public CursorPage<GoalResponse> getUserGoals(GoalStatus status, String cursor, int limit, boolean includeTotal) {
+        User user = getCurrentUser();
+        int size = KeysetCursors.limit(limit);
+        long beforeId = cursor != null ? KeysetCursors.decodeId(cursor) : Long.MAX_VALUE;
+        List<Goal> goals = status != null
+                ? goalRepository.findByUserIdAndStatusBefore(user.getId(), status, beforeId, KeysetCursors.fetchLimit(size))
+                : goalRepository.findByUserIdBefore(user.getId(), beforeId, KeysetCursors.fetchLimit(size));
+        Long total = null;
+        if (includeTotal) {
+            total = status != null
+                    ? goalRepository.countByUserIdAndStatus(user.getId(), status)
+                    : goalRepository.countByUserId(user.getId());
+        }
+        return KeysetCursors.page(goals.stream().map(this::mapToResponse).toList(), size,
+                g -> KeysetCursors.encode(g.getId()), total);
+    }
+
+    public Page<GoalTemplateResponse> getUserTemplates(Pageable pageable) {
+        User user = getCurrentUser();
+        return goalTemplateRepository.findByUser(user, pageable)
+                .map(this::mapToTemplateResponse);
+    }
+
+    /**
+     * Şablonu durdurur; üretilmiş hedefler kalır, yeni dönem üretilmez
+     */
+    public GoalTemplateResponse stopTemplate(Long id) {
+        User user = getCurrentUser();
+        GoalTemplate template = goalTemplateRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Goal template not found"));
+        if (!template.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("You can only update your own goal templates");
+        }
+        template.setActive(false);
+        goalTemplateRepository.save(template);
+        return mapToTemplateResponse(template);
+    }
+
+    /**
+     * Durum bazında hedef sayıları; olmayan durumlar 0
+     */
+    public Map<GoalStatus, Long> getStatusCounts() {
+        User user = getCurrentUser();
+        Map<GoalStatus, Long> counts = new EnumMap<>(GoalStatus.class);
+        for (GoalStatus status : GoalStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (GoalStatusCount count : goalRepository.countByStatus(user.getId())) {
+            if (count.getStatus() != null) {
+                counts.put(count.getStatus(), count.getCount());
+            }
+        }
+        return counts;
     }
 
     public GoalResponse getGoal(Long id) {
         User user = getCurrentUser();
-        Goal goal = goalRepository.findById(id)
+        Goal goal = goalRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found"));
         if (!goal.getUser().getId().equals(user.getId())) {
             throw new RuntimeException("You can only view your own goals");
         }
-        return mapToResponseWithComputedStatus(goal);
+        return mapToResponse(goal);
     }
 
     public void deleteGoal(Long id) {
@@ -107,6 +188,7 @@ public class GoalService {
             throw new RuntimeException("You can only delete your own goals");
         }
         goalRepository.delete(goal);
+        eventPublisher.publishEvent(new GoalChangedEvent(user.getId(), goal.getId(), scope(goal), null));
     }
 
     public GoalResponse updateGoal(Long id, GoalRequest request) {
@@ -116,6 +198,7 @@ public class GoalService {
         if (!goal.getUser().getId().equals(user.getId())) {
             throw new RuntimeException("You can only update your own goals");
         }
+        GoalScope previous = scope(goal);
 
         if (request.getTitle() != null) goal.setTitle(request.getTitle());
         if (request.getDescription() != null) goal.setDescription(request.getDescription());
@@ -132,85 +215,68 @@ public class GoalService {
             goal.setCategory(category);
         }
 
+        // Tarih aralığı veya kategori değiştiyse ilerleme yeniden hesaplanır
+        GoalScope current = scope(goal);
+        if (!current.equals(previous)) {
+            goalProgressService.resync(goal);
+        } else {
+            goalProgressService.refreshStatus(goal);
+        }
+
         goalRepository.save(goal);
-        return mapToResponseWithComputedStatus(goal);
+        eventPublisher.publishEvent(new GoalChangedEvent(user.getId(), goal.getId(), previous, current));
+        return mapToResponse(goal);
     }
 
+    /**
+     * İlerleme hedef satırında tutulur; sadece birincil anahtar okuması yapılır
+     */
     public GoalResponse trackProgress(Long id) {
         User user = getCurrentUser();
-        Goal goal = goalRepository.findById(id)
+        Goal goal = goalRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found"));
         if (!goal.getUser().getId().equals(user.getId())) {
             throw new RuntimeException("You can only view your own goals");
         }
-
-        Double hours;
-        if (goal.getCategory() != null) {
-            hours = activityRepository.findByUserAndCategoryAndDateBetween(user, goal.getCategory(), goal.getStartDate(), goal.getEndDate())
-                    .stream()
-                    .mapToDouble(Activity::getDurationHours)
-                    .sum();
-        } else {
-            hours = activityRepository.findByUserAndDateBetween(user, goal.getStartDate(), goal.getEndDate())
-                    .stream()
-                    .mapToDouble(Activity::getDurationHours)
-                    .sum();
-        }
-
-        GoalStatus status;
-        LocalDate today = LocalDate.now();
-        if (hours >= goal.getTargetHours()) {
-            status = GoalStatus.COMPLETED;
-        } else if (today.isAfter(goal.getEndDate())) {
-            status = GoalStatus.FAILED;
-        } else {
-            status = GoalStatus.ACTIVE;
-        }
-
-        return mapToResponse(goal, hours, status);
+        return mapToResponse(goal);
     }
 
-    private GoalResponse mapToResponseWithComputedStatus(Goal goal) {
-        User user = goal.getUser();
-        Double hours;
-        if (goal.getCategory() != null) {
-            hours = activityRepository.findByUserAndCategoryAndDateBetween(user, goal.getCategory(), goal.getStartDate(), goal.getEndDate())
-                    .stream()
-                    .mapToDouble(Activity::getDurationHours)
-                    .sum();
-        } else {
-            hours = activityRepository.findByUserAndDateBetween(user, goal.getStartDate(), goal.getEndDate())
-                    .stream()
-                    .mapToDouble(Activity::getDurationHours)
-                    .sum();
-        }
-
-        GoalStatus status;
-        LocalDate today = LocalDate.now();
-        if (hours >= goal.getTargetHours()) {
-            status = GoalStatus.COMPLETED;
-        } else if (today.isAfter(goal.getEndDate())) {
-            status = GoalStatus.FAILED;
-        } else {
-            status = GoalStatus.ACTIVE;
-        }
-
-        return mapToResponse(goal, hours, status);
+    private GoalScope scope(Goal goal) {
+        return new GoalScope(
+                goal.getId(),
+                goal.getCategory() != null ? goal.getCategory().getId() : null,
+                goal.getStartDate(),
+                goal.getEndDate());
     }
 
-    private GoalResponse mapToResponse(Goal goal, Double currentHours, GoalStatus status) {
+    private GoalResponse mapToResponse(Goal goal) {
         return GoalResponse.builder()
                 .id(goal.getId())
                 .title(goal.getTitle())
                 .description(goal.getDescription())
                 .type(goal.getType())
                 .targetHours(goal.getTargetHours())
-                .currentHours(currentHours)
+                .currentHours(goal.getCurrentHours())
                 .startDate(goal.getStartDate())
                 .endDate(goal.getEndDate())
-                .status(status)
+                .status(goal.getStatus())
                 .categoryId(goal.getCategory() != null ? goal.getCategory().getId() : null)
                 .categoryName(goal.getCategory() != null ? goal.getCategory().getName() : null)
+                .templateId(goal.getTemplate() != null ? goal.getTemplate().getId() : null)
+                .build();
+    }
+
+    private GoalTemplateResponse mapToTemplateResponse(GoalTemplate template) {
+        return GoalTemplateResponse.builder()
+                .id(template.getId())
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .type(template.getType())
+                .targetHours(template.getTargetHours())
+                .active(template.getActive())
+                .lastPeriodStart(template.getLastPeriodStart())
+                .categoryId(template.getCategory() != null ? template.getCategory().getId() : null)
+                .categoryName(template.getCategory() != null ? template.getCategory().getName() : null)
                 .build();
     }
 }
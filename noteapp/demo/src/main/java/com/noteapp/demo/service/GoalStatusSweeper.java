@@ -0,0 +1,43 @@
+package com.noteapp.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Bitiş tarihi geçmiş ACTIVE hedefleri partiler halinde kapatır. Her parti
+ * ayrı transaction'dır ve kilitli satırları atlar; birden çok düğümde
+ * çalışması güvenlidir. noteapp.goal-status-sweeper.enabled=false ile kapatılır.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "noteapp.goal-status-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class GoalStatusSweeper {
+
+    private final GoalProgressService goalProgressService;
+
+    @Value("${noteapp.goal-status-sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${noteapp.goal-status-sweeper.interval:PT15M}",
+            initialDelayString = "${noteapp.goal-status-sweeper.initial-delay:PT1M}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        int updated;
+        do {
+            updated = goalProgressService.expireBatch(today, batchSize);
+            total += updated;
+        } while (updated == batchSize);
+
+        if (total > 0) {
+            log.info("Goal status sweep closed {} expired goals", total);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.dto.CursorPage;
+import com.noteapp.demo.exception.InvalidCursorException;
+import com.noteapp.demo.exception.InvalidLimitException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset sayfalama yardımcıları. Devam belirteci son satırın sıralama
+ * anahtarıdır ((date, id) veya id), istemciye base64url olarak verilir.
+ * Sorgular limit + 1 satır çeker; fazlası sonraki sayfanın varlığını gösterir.
+ */
+final class KeysetCursors {
+
+    static final int MAX_LIMIT = 100;
+    // İlk sayfa için üst sınır; LocalDate.MAX veritabanının tarih aralığı dışında
+    static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    record DateId(LocalDate date, long id) {
+    }
+
+    private KeysetCursors() {
+    }
+
+    // Pozitif olmayan limit reddedilir; MAX_LIMIT üstü sınıra indirilir
+    static int limit(int requested) {
+        if (requested <= 0) {
+            throw new InvalidLimitException("limit must be positive");
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    static Limit fetchLimit(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    static String encode(LocalDate date, Long id) {
+        return encode(date + "|" + id);
+    }
+
+    static String encode(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    static DateId decodeDateId(String cursor) {
+        String[] parts = decode(cursor).split("\\|", -1);
+        try {
+            if (parts.length == 2) {
+                return new DateId(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+            }
+        } catch (DateTimeParseException | NumberFormatException ignored) {
+            // aşağıda hata
+        }
+        throw new InvalidCursorException("Invalid cursor");
+    }
+
+    static long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    static <T> CursorPage<T> page(List<T> rows, int limit, Function<T, String> cursorOf, Long total) {
+        boolean hasNext = rows.size() > limit;
+        List<T> items = hasNext ? rows.subList(0, limit) : rows;
+        return CursorPage.<T>builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .total(total)
+                .build();
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
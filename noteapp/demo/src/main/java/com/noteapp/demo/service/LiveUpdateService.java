@@ -0,0 +1,281 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.dto.LiveDailyTotal;
+import com.noteapp.demo.dto.LiveGoalProgress;
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.exception.TooManyLiveConnectionsException;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.GoalRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kullanıcının açık SSE bağlantılarına aktivite değişikliklerinin sonucunu
+ * (günlük toplam, etkilenen hedeflerin ilerlemesi/durumu, streak) iter.
+ * Değişiklikler commit sonrası ActivityChangedEvent ile gelir; commit eden
+ * thread sadece değişen (gün, kategori) çiftlerini bağlantı başına sınırlı
+ * bir tampona yazar. Her bağlantıyı kendi virtual thread'i boşaltır ve
+ * değerleri göndermeden hemen önce okur; yavaş istemci veya sorgu sadece
+ * kendi bağlantısını bekletir.
+ */
+@Service
+@Slf4j
+public class LiveUpdateService {
+
+    private final CurrentUserResolver currentUserResolver;
+    private final GoalRepository goalRepository;
+    private final PrefixSumIndex prefixSumIndex;
+    private final ActiveDayIndex activeDayIndex;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    public LiveUpdateService(CurrentUserResolver currentUserResolver,
+                             GoalRepository goalRepository,
+                             PrefixSumIndex prefixSumIndex,
+                             ActiveDayIndex activeDayIndex,
+                             @Value("${noteapp.live.buffer-size:256}") int bufferSize,
+                             @Value("${noteapp.live.max-connections-per-user:5}") int maxConnectionsPerUser,
+                             @Value("${noteapp.live.heartbeat:15s}") Duration heartbeat,
+                             @Value("${noteapp.live.timeout:30m}") Duration timeout) {
+        this.currentUserResolver = currentUserResolver;
+        this.goalRepository = goalRepository;
+        this.prefixSumIndex = prefixSumIndex;
+        this.activeDayIndex = activeDayIndex;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    private User getCurrentUser() {
+        return currentUserResolver.currentUser();
+    }
+
+    public SseEmitter subscribe() {
+        Long userId = getCurrentUser().getId();
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Connection connection = new Connection(userId, emitter);
+        // Sınır kontrolü ve ekleme aynı anahtar kilidi altında; close() da aynı kilitle çıkarır
+        connections.compute(userId, (id, userConnections) -> {
+            Set<Connection> updated = userConnections != null ? userConnections : new CopyOnWriteArraySet<>();
+            if (updated.size() >= maxConnectionsPerUser) {
+                // Kopan istemcinin yeri en geç bir heartbeat sonra (gönderim başarısız olunca) boşalır
+                throw new TooManyLiveConnectionsException(heartbeat);
+            }
+            updated.add(connection);
+            return updated;
+        });
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        Thread.ofVirtual().name("live-" + userId + "-", 0).start(connection::run);
+        return emitter;
+    }
+
+    // İndeksler (Order 0) güncellendikten sonra çalışır; commit eden thread'de sorgu atılmaz
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        Set<Connection> userConnections = connections.get(event.getUserId());
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            connection.offer(event.getDeltas());
+        }
+    }
+
+    /**
+     * Değişen günlerin toplamları, bu günleri kapsayan hedeflerin ilerlemesi ve
+     * streak; bağlantının thread'inde, gönderimden hemen önce okunur.
+     * Hedefler, değişikliklerin tarih aralığı ve kategorileriyle tek sorguda
+     * bulunur; aralık birden çok günü kapsıyorsa etkilenmemiş birkaç hedef de
+     * gelebilir, güncel değerleri gönderildiğinden zararsızdır.
+     */
+    private List<Update> updatesFor(Long userId, Collection<DayCategory> changes) {
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (DayCategory change : changes) {
+            dates.add(change.date());
+            categoryIds.add(change.categoryId());
+        }
+
+        List<Update> updates = new ArrayList<>();
+        for (LocalDate date : dates) {
+            double hours = prefixSumIndex.sum(userId, null, date, date);
+            updates.add(new Update("daily-total", new LiveDailyTotal(date, hours)));
+        }
+        if (!dates.isEmpty()) {
+            LocalDate from = dates.first();
+            LocalDate to = dates.last();
+            for (LiveGoalProgress progress : goalRepository.findProgressCovering(userId, from, to, categoryIds)) {
+                updates.add(new Update("goal", progress));
+            }
+        }
+        updates.add(new Update("streak", activeDayIndex.getStreaks(userId, LocalDate.now())));
+        return updates;
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        connections.values().forEach(userConnections -> userConnections.forEach(c -> c.emitter.complete()));
+    }
+
+    // type: SSE olay adı
+    private record Update(String type, Object payload) {
+    }
+
+    private record DayCategory(LocalDate date, Long categoryId) {
+    }
+
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition pending = lock.newCondition();
+        // Gönderilmeyi bekleyen değişiklikler; aynısı tekrar gelirse sona taşınır, dolunca en eskisi atılır
+        private final LinkedHashSet<DayCategory> buffer = new LinkedHashSet<>();
+        private boolean closed;
+        private long dropped;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(List<ActivityDelta> deltas) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                for (ActivityDelta delta : deltas) {
+                    DayCategory change = new DayCategory(delta.getDate(), delta.getCategoryId());
+                    buffer.remove(change);
+                    buffer.add(change);
+                    if (buffer.size() > bufferSize) {
+                        Iterator<DayCategory> oldest = buffer.iterator();
+                        oldest.next();
+                        oldest.remove();
+                        dropped++;
+                    }
+                }
+                pending.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void run() {
+            try {
+                emitter.send(SseEmitter.event().comment("connected"));
+                while (true) {
+                    List<DayCategory> changes = take();
+                    if (changes == null) {
+                        return;
+                    }
+                    if (changes.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        continue;
+                    }
+                    List<Update> batch;
+                    try {
+                        batch = updatesFor(userId, changes);
+                    } catch (RuntimeException e) {
+                        // Okuma hatası bağlantıyı kapatmaz; sonraki değişiklik güncel durumu getirir
+                        log.warn("Live update for user {} failed: {}", userId, e.getMessage());
+                        continue;
+                    }
+                    for (Update update : batch) {
+                        emitter.send(SseEmitter.event()
+                                .name(update.type())
+                                .data(update.payload(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Live connection for user {} closed: {}", userId, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Bekleyen değişiklikleri alır; heartbeat süresince gelmezse boş liste,
+         * bağlantı kapandıysa null döner
+         */
+        private List<DayCategory> take() throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = heartbeat.toNanos();
+                while (buffer.isEmpty() && !closed && remaining > 0) {
+                    remaining = pending.awaitNanos(remaining);
+                }
+                if (closed) {
+                    return null;
+                }
+                if (dropped > 0) {
+                    log.debug("Live connection for user {} dropped {} stale updates", userId, dropped);
+                    dropped = 0;
+                }
+                List<DayCategory> batch = new ArrayList<>(buffer);
+                buffer.clear();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buffer.clear();
+                pending.signal();
+            } finally {
+                lock.unlock();
+            }
+            connections.computeIfPresent(userId, (id, userConnections) -> {
+                userConnections.remove(this);
+                return userConnections.isEmpty() ? null : userConnections;
+            });
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.noteapp.demo.service;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bellek içi indeks girişleri için süre: erişilmeyen giriş idle süresi sonunda,
+ * her giriş ise yüklendiği andan maxAge sonra düşer. Olaylarla yerinde
+ * güncellemek (expireAfterWrite'ın aksine) yüklenme anını değiştirmez; böylece
+ * başka düğümlerdeki yazmalar en geç maxAge içinde görünür.
+ * loadedAt, System.nanoTime() ile alınmalıdır (Caffeine'in varsayılan saati).
+ */
+final class LoadAgeExpiry<V> implements Expiry<Long, V> {
+
+    private final ToLongFunction<V> loadedAtNanos;
+    private final long idleNanos;
+    private final long maxAgeNanos;
+
+    LoadAgeExpiry(ToLongFunction<V> loadedAtNanos, Duration idle, Duration maxAge) {
+        this.loadedAtNanos = loadedAtNanos;
+        this.idleNanos = idle.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(Long key, V value, long currentTime) {
+        return remaining(value, currentTime);
+    }
+
+    @Override
+    public long expireAfterUpdate(Long key, V value, long currentTime, long currentDuration) {
+        return remaining(value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Long key, V value, long currentTime, long currentDuration) {
+        return remaining(value, currentTime);
+    }
+
+    private long remaining(V value, long currentTime) {
+        long age = currentTime - loadedAtNanos.applyAsLong(value);
+        return Math.max(0, Math.min(idleNanos, maxAgeNanos - age));
+    }
+}
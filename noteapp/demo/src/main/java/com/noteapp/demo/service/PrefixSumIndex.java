@@ -0,0 +1,229 @@
+package com.noteapp.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.event.CategoryDeletedEvent;
+import com.noteapp.demo.event.DailyTotalsRebuiltEvent;
+import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kullanıcı başına, epoch-day ile indekslenen kümülatif saat dizisi
+ * (tüm kategoriler ve kategori bazında). Herhangi bir [start, end] toplamı
+ * iki okuma ve bir çıkarmadır. İlk erişimde daily_totals'tan tek sorguyla
+ * kurulur, sonra aktivite yazmalarıyla commit sonrası güncellenir.
+ * Başka düğümlerdeki yazmalar olay almadığından giriş, yüklendikten en geç
+ * max-age sonra yeniden kurulur.
+ */
+@Component
+public class PrefixSumIndex {
+
+    private final DailyTotalRepository dailyTotalRepository;
+    private final Cache<Long, UserSums> index;
+
+    public PrefixSumIndex(DailyTotalRepository dailyTotalRepository,
+                          @Value("${noteapp.prefix-sum-index.maximum-days:5000000}") long maximumDays,
+                          @Value("${noteapp.prefix-sum-index.expire-after-access:1h}") Duration expireAfterAccess,
+                          @Value("${noteapp.prefix-sum-index.max-age:5m}") Duration maxAge) {
+        this.dailyTotalRepository = dailyTotalRepository;
+        // Ağırlık: kullanıcının tuttuğu toplam gün hücresi sayısı
+        this.index = Caffeine.newBuilder()
+                .maximumWeight(maximumDays)
+                .weigher((Long userId, UserSums sums) -> sums.weight())
+                .expireAfter(new LoadAgeExpiry<UserSums>(sums -> sums.loadedAtNanos, expireAfterAccess, maxAge))
+                .build();
+    }
+
+    /**
+     * [startDate, endDate] aralığındaki toplam saat; categoryId null ise tüm kategoriler
+     */
+    public double sum(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        return index.get(userId, this::load).sum(categoryId, startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    private UserSums load(Long userId) {
+        List<DailyTotal> totals = dailyTotalRepository.findAllByUserId(userId);
+        UserSums sums = UserSums.of(totals, LocalDate.now().toEpochDay());
+        sums.loadedAtNanos = System.nanoTime();
+        return sums;
+    }
+
+    // Önbellek silinmeden önce çalışmalı ki yeniden hesaplanan değerler güncel indeksi görsün
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        index.asMap().computeIfPresent(event.getUserId(), (userId, sums) -> {
+            // Yükleme değişiklik yayınlandıktan sonra bittiyse commit'i görmüş olabilir:
+            // deltayı iki kez uygulamamak için indeksi bırak, sonraki okuma yeniden kursun
+            if (sums.loadedAtNanos - event.getPublishedAtNanos() > 0) {
+                return null;
+            }
+            for (ActivityDelta delta : event.getDeltas()) {
+                sums.add(delta.getDate().toEpochDay(), delta.getCategoryId(), delta.getHours());
+            }
+            return sums;
+        });
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        index.invalidate(event.getUserId());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        index.invalidate(event.getUserId());
+    }
+
+    static final class UserSums {
+
+        private final PrefixSums all;
+        private final Map<Long, PrefixSums> byCategory;
+        private long loadedAtNanos;
+
+        private UserSums(PrefixSums all, Map<Long, PrefixSums> byCategory) {
+            this.all = all;
+            this.byCategory = byCategory;
+        }
+
+        // Desteklenen pencere dışındaki günler tutulmaz; diziler pencere uzunluğunu aşmaz
+        static UserSums of(List<DailyTotal> allTotals, long todayDay) {
+            List<DailyTotal> totals = allTotals.stream()
+                    .filter(total -> Activity.isSupportedDate(total.getId().getDate()))
+                    .toList();
+            long first = todayDay;
+            long last = todayDay;
+            Map<Long, long[]> categoryRanges = new HashMap<>();
+            for (DailyTotal total : totals) {
+                long day = total.getId().getDate().toEpochDay();
+                first = Math.min(first, day);
+                last = Math.max(last, day);
+                categoryRanges.merge(total.getId().getCategoryId(), new long[]{day, day},
+                        (a, b) -> new long[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+            }
+
+            // Önce günlük değerler yazılır, sonra tek geçişte kümülatife çevrilir
+            double[] allDaily = new double[(int) (last - first + 1)];
+            Map<Long, double[]> categoryDaily = new HashMap<>();
+            categoryRanges.forEach((categoryId, range) ->
+                    categoryDaily.put(categoryId, new double[(int) (range[1] - range[0] + 1)]));
+            for (DailyTotal total : totals) {
+                long day = total.getId().getDate().toEpochDay();
+                allDaily[(int) (day - first)] += total.getHours();
+                categoryDaily.get(total.getId().getCategoryId())
+                        [(int) (day - categoryRanges.get(total.getId().getCategoryId())[0])] += total.getHours();
+            }
+
+            Map<Long, PrefixSums> byCategory = new HashMap<>();
+            categoryDaily.forEach((categoryId, daily) ->
+                    byCategory.put(categoryId, PrefixSums.of(categoryRanges.get(categoryId)[0], daily)));
+            return new UserSums(PrefixSums.of(first, allDaily), byCategory);
+        }
+
+        synchronized double sum(Long categoryId, long fromDay, long toDay) {
+            PrefixSums prefix = categoryId == null ? all : byCategory.get(categoryId);
+            return prefix == null ? 0.0 : prefix.sum(fromDay, toDay);
+        }
+
+        synchronized void add(long day, Long categoryId, double hours) {
+            if (!Activity.isSupportedDate(LocalDate.ofEpochDay(day))) {
+                return;
+            }
+            all.add(day, hours);
+            byCategory.computeIfAbsent(categoryId, id -> PrefixSums.of(day, new double[1])).add(day, hours);
+        }
+
+        synchronized int weight() {
+            int weight = all.length();
+            for (PrefixSums prefix : byCategory.values()) {
+                weight += prefix.length();
+            }
+            return weight;
+        }
+    }
+
+    /**
+     * cumulative[i] = baseDay ile (baseDay + i) arasındaki günlerin toplamı.
+     * Erişim UserSums kilidi altında yapılır.
+     */
+    static final class PrefixSums {
+
+        private long baseDay;
+        private double[] cumulative;
+
+        private PrefixSums(long baseDay, double[] cumulative) {
+            this.baseDay = baseDay;
+            this.cumulative = cumulative;
+        }
+
+        // Günlük değer dizisini yerinde kümülatife çevirir
+        static PrefixSums of(long baseDay, double[] daily) {
+            for (int i = 1; i < daily.length; i++) {
+                daily[i] += daily[i - 1];
+            }
+            return new PrefixSums(baseDay, daily);
+        }
+
+        int length() {
+            return cumulative.length;
+        }
+
+        double sum(long fromDay, long toDay) {
+            if (toDay < fromDay) {
+                return 0.0;
+            }
+            // Çıkarmadan kalan kayan nokta artıklarını temizle
+            return Math.round((upTo(toDay) - upTo(fromDay - 1)) * 1e6) / 1e6;
+        }
+
+        /**
+         * Değişen günden itibaren tüm kümülatif değerlere eklenir
+         */
+        void add(long day, double hours) {
+            ensureCovers(day);
+            for (int i = (int) (day - baseDay); i < cumulative.length; i++) {
+                cumulative[i] += hours;
+            }
+        }
+
+        private double upTo(long day) {
+            if (day < baseDay) {
+                return 0.0;
+            }
+            return cumulative[(int) Math.min(day - baseDay, cumulative.length - 1)];
+        }
+
+        private void ensureCovers(long day) {
+            if (day < baseDay) {
+                // Daha eski gün: başa sıfırlar eklenir
+                int shift = (int) (baseDay - day);
+                double[] grown = new double[cumulative.length + shift];
+                System.arraycopy(cumulative, 0, grown, shift, cumulative.length);
+                cumulative = grown;
+                baseDay = day;
+            } else if (day - baseDay >= cumulative.length) {
+                // Daha yeni gün: son kümülatif değer ileri taşınır
+                int oldLength = cumulative.length;
+                double[] grown = Arrays.copyOf(cumulative, (int) (day - baseDay) + 1);
+                Arrays.fill(grown, oldLength, grown.length, cumulative[oldLength - 1]);
+                cumulative = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.security.RevokedTokenIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diğer instance'ların token iptallerini bellek içi indekse çeker ve süresi
+ * dolmuş iptal/refresh token satırlarını temizler. Silme idempotenttir,
+ * birden çok düğümde çalışması güvenlidir.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "noteapp.token-revocation.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenRevocationJob {
+
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final AuthTokenService authTokenService;
+
+    @Scheduled(fixedDelayString = "${noteapp.token-revocation.sync-interval:PT30S}",
+            initialDelayString = "${noteapp.token-revocation.sync-interval:PT30S}")
+    public void sync() {
+        int synced = revokedTokenIndex.sync();
+        if (synced > 0) {
+            log.debug("Synced {} revoked access tokens", synced);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${noteapp.token-revocation.purge-interval:PT1H}",
+            initialDelayString = "${noteapp.token-revocation.purge-interval:PT1H}")
+    public void purge() {
+        int deleted = authTokenService.deleteExpired();
+        int live = revokedTokenIndex.purge();
+        log.info("Token cleanup deleted {} expired rows, {} revoked access tokens remain", deleted, live);
+    }
+}
@@ -0,0 +1,24 @@
+package com.noteapp.demo.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tarih Activity.MIN_DATE ile Activity.MAX_DATE arasında olmalı (null geçerli sayılır)
+ */
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = ActivityDateValidator.class)
+public @interface ActivityDate {
+
+    String message() default "must be between 2000-01-01 and 2099-12-31";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,15 @@
+package com.noteapp.demo.validation;
+
+import com.noteapp.demo.model.Activity;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.time.LocalDate;
+
+public class ActivityDateValidator implements ConstraintValidator<ActivityDate, LocalDate> {
+
+    @Override
+    public boolean isValid(LocalDate value, ConstraintValidatorContext context) {
+        return value == null || Activity.isSupportedDate(value);
+    }
+}
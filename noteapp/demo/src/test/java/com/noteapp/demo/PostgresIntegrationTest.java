@@ -0,0 +1,77 @@
+package com.noteapp.demo;
+
+import com.noteapp.demo.model.Category;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.CategoryRepository;
+import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+/**
+ * PostgreSQL'e özgü SQL'i (upsert, skip locked, date_trunc) gerçek
+ * veritabanında sınayan testlerin tabanı. Alt sınıflar kendi özelliklerini
+ * eklemez; böylece hepsi tek konteyneri ve tek Spring context'i paylaşır.
+ * Veritabanı sınıflar arasında ortak olduğundan her test kendi kullanıcısını
+ * üretir. Docker yoksa atlanır.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "noteapp.goal-status-sweeper.enabled=false",
+        "noteapp.goal-rollover.enabled=false",
+        "noteapp.token-revocation.enabled=false",
+        // İçe aktarma testleri parti sınırını birkaç satırla geçer
+        "noteapp.activity-import.batch-size=2",
+        "jwt.secret=postgres-integration-test-secret-0123456789abcdef"
+})
+public abstract class PostgresIntegrationTest {
+
+    // @Container yerine elle başlatılır: sınıf bitince durmaz, önbellekteki context kullanmaya devam eder
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @AfterEach
+    void clearSecurityContext() {
+        TestSecurityContextHolder.clearContext();
+    }
+
+    protected User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name.toLowerCase() + "-" + UUID.randomUUID() + "@test.com")
+                .password("x")
+                .build());
+    }
+
+    protected Category createCategory(User user, String name) {
+        return categoryRepository.save(Category.builder().name(name).user(user).build());
+    }
+
+    // Servisler CurrentUserResolver ile bu kullanıcıyı görür
+    protected void signIn(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.of(user);
+        TestSecurityContextHolder.setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,349 @@
+package com.noteapp.demo.controller;
+
+import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.model.Category;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.model.DailyTotalId;
+import com.noteapp.demo.model.Goal;
+import com.noteapp.demo.model.GoalType;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.ActivityRepository;
+import com.noteapp.demo.repository.CategoryRepository;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.repository.GoalRepository;
+import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.security.AuthenticatedUser;
+import com.noteapp.demo.service.GoalProgressService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Okuma endpoint'lerinin satır/kategori sayısından bağımsız olarak sabit
+ * sayıda SQL cümlesi çalıştırdığını doğrular (kategori N+1 olmamalı).
+ * Kullanıcı, JWT filtresinin kurduğu gibi claim'lerden gelen
+ * AuthenticatedUser'dır; kullanıcı için sorgu atılmaz.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "noteapp.goal-status-sweeper.enabled=false",
+        "noteapp.goal-rollover.enabled=false",
+        "noteapp.activity-sequence-aligner.enabled=false",
+        "jwt.secret=query-count-test-secret-0123456789abcdef"
+})
+class ActivityQueryCountTests {
+
+    static final String EMAIL = "query-count@test.com";
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final int CATEGORIES = 4;
+    private static final int DAYS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ActivityRepository activityRepository;
+    @Autowired
+    private DailyTotalRepository dailyTotalRepository;
+    @Autowired
+    private GoalRepository goalRepository;
+    @Autowired
+    private GoalProgressService goalProgressService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long activityId;
+    private Long goalId;
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            seedUser();
+        }
+        activityId = activityRepository.findAll().get(0).getId();
+        goalId = goalRepository.findAll().get(0).getId();
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), EMAIL, null, List.of("USER"));
+        TestSecurityContextHolder.setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private void seedUser() {
+        User user = userRepository.save(User.builder()
+                .name("Query Count")
+                .email(EMAIL)
+                .password("x")
+                .build());
+        // daily_totals doğrudan yazılır: upsert sorgusu PostgreSQL'e özgü
+        for (int c = 0; c < CATEGORIES; c++) {
+            Category category = categoryRepository.save(Category.builder()
+                    .name("Category " + c)
+                    .user(user)
+                    .build());
+            for (int d = 0; d < DAYS; d++) {
+                LocalDate date = START.plusDays(d);
+                activityRepository.save(Activity.builder()
+                        .user(user)
+                        .category(category)
+                        .date(date)
+                        .durationHours(1.5)
+                        .build());
+                dailyTotalRepository.save(new DailyTotal(
+                        new DailyTotalId(user.getId(), date, category.getId()), 1.5, 1));
+            }
+        }
+        for (Category category : categoryRepository.findAll()) {
+            goalRepository.save(goal(user, category));
+        }
+        goalRepository.save(goal(user, null));
+        goalProgressService.resyncUser(user.getId());
+    }
+
+    private static Goal goal(User user, Category category) {
+        return Goal.builder()
+                .user(user)
+                .category(category)
+                .title(category != null ? category.getName() : "All")
+                .type(GoalType.CUSTOM)
+                .targetHours(10.0)
+                .startDate(START)
+                .endDate(START.plusDays(DAYS - 1))
+                .build();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void activityPageUsesSingleQuery() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/activities").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(CATEGORIES * DAYS))
+                .andExpect(jsonPath("$.content[0].categoryName").exists());
+
+        // Sayfa boyutundan az satır olduğu için count sorgusu atlanır
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void activityCursorPagesWithoutCount() throws Exception {
+        Statistics statistics = statistics();
+
+        String body = mockMvc.perform(get("/api/activities").param("limit", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(8))
+                .andExpect(jsonPath("$.items[0].date").value(START.plusDays(DAYS - 1).toString()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.total").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        String cursor = JsonPath.read(body, "$.nextCursor");
+        body = mockMvc.perform(get("/api/activities").param("limit", "8").param("cursor", cursor))
+                .andExpect(jsonPath("$.items.length()").value(8))
+                .andReturn().getResponse().getContentAsString();
+        cursor = JsonPath.read(body, "$.nextCursor");
+        mockMvc.perform(get("/api/activities").param("limit", "8").param("cursor", cursor)
+                        .param("includeTotal", "true"))
+                .andExpect(jsonPath("$.items.length()").value(CATEGORIES * DAYS - 16))
+                .andExpect(jsonPath("$.items[%d].date", CATEGORIES * DAYS - 17).value(START.toString()))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.total").value(CATEGORIES * DAYS));
+    }
+
+    @Test
+    void activityDateRangeCursorPages() throws Exception {
+        String body = mockMvc.perform(get("/api/activities/date-range")
+                        .param("startDate", START.plusDays(1).toString())
+                        .param("endDate", START.plusDays(2).toString())
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(jsonPath("$.items[0].date").value(START.plusDays(1).toString()))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/activities/date-range")
+                        .param("startDate", START.plusDays(1).toString())
+                        .param("endDate", START.plusDays(2).toString())
+                        .param("limit", "5")
+                        .param("cursor", JsonPath.<String>read(body, "$.nextCursor")))
+                .andExpect(jsonPath("$.items.length()").value(2 * CATEGORIES - 5))
+                .andExpect(jsonPath("$.items[0].date").value(START.plusDays(2).toString()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void activityDateRangeUsesSingleQuery() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/activities/date-range")
+                        .param("startDate", START.toString())
+                        .param("endDate", START.plusDays(DAYS - 1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CATEGORIES * DAYS));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void activityByIdFetchesCategoryWithJoin() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/activities/{id}", activityId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Category 0"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void categoryPerformanceUsesSingleQuery() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/dashboard/category-performance")
+                        .param("startDate", START.toString())
+                        .param("endDate", START.plusDays(DAYS - 1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CATEGORIES));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void goalPageReadsStoredProgress() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/goals").param("size", "100").param("sort", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(CATEGORIES + 1))
+                .andExpect(jsonPath("$.content[0].currentHours").value(1.5 * DAYS))
+                .andExpect(jsonPath("$.content[0].categoryName").value("Category 0"))
+                .andExpect(jsonPath("$.content[%d].currentHours", CATEGORIES).value(1.5 * DAYS * CATEGORIES))
+                .andExpect(jsonPath("$.content[%d].status", CATEGORIES).value("COMPLETED"));
+
+        // sadece hedef sayfası (kategori join); ilerleme satırda saklı
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void goalPageFiltersByStoredStatus() throws Exception {
+        Statistics statistics = statistics();
+
+        // Sadece tüm kategorileri kapsayan hedef 10 saati geçer
+        mockMvc.perform(get("/api/goals").param("status", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("All"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void goalCursorPageFiltersByStatus() throws Exception {
+        Statistics statistics = statistics();
+
+        // Kategori hedefleri 10 saate ulaşmadan sona erdi
+        mockMvc.perform(get("/api/goals").param("limit", "10").param("status", "FAILED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(CATEGORIES))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(get("/api/goals").param("limit", "2"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("All"))
+                .andExpect(jsonPath("$.items[1].categoryName").value("Category " + (CATEGORIES - 1)))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void categoryCursorPageWithTotal() throws Exception {
+        mockMvc.perform(get("/api/categories").param("limit", "3").param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].name").value("Category 0"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.total").value(CATEGORIES));
+    }
+
+    @Test
+    void goalTrackIsPrimaryKeyRead() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/goals/{id}/track", goalId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentHours").value(1.5 * DAYS));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void customRangeIsBoundedAndRejectedWithoutQuery() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/dashboard/trends/custom")
+                        .param("startDate", "0001-01-01")
+                        .param("endDate", "9999-12-31"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Date Range"));
+        mockMvc.perform(get("/api/dashboard/trends/custom")
+                        .param("startDate", START.plusDays(1).toString())
+                        .param("endDate", START.toString()))
+                .andExpect(status().isBadRequest());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void activityDateOutsideSupportedWindowIsRejected() throws Exception {
+        Long categoryId = categoryRepository.findAll().get(0).getId();
+        Statistics statistics = statistics();
+
+        // Gün indeksleri tarih aralığı uzunluğunda dizi tutar; uç tarihler yazma yoluna ulaşmamalı
+        mockMvc.perform(post("/api/activities")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryId\":" + categoryId + ",\"date\":\"+999999-01-01\",\"durationHours\":1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fields.date").exists());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package com.noteapp.demo.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void busyPasswordHashingMapsTo429WithRetryAfter() {
+        ResponseEntity<Object> response =
+                handler.handlePasswordHashingBusy(new PasswordHashingBusyException(Duration.ofMillis(1500)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody()).isInstanceOfSatisfying(Map.class,
+                body -> assertThat(body.get("status")).isEqualTo(429));
+    }
+
+    @Test
+    void retryAfterIsAtLeastOneSecond() {
+        ResponseEntity<Object> response =
+                handler.handlePasswordHashingBusy(new PasswordHashingBusyException(Duration.ZERO));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void liveConnectionCapMapsTo429AsJson() {
+        ResponseEntity<Object> response =
+                handler.handleTooManyLiveConnections(new TooManyLiveConnectionsException(Duration.ofSeconds(15)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("15");
+        // SSE isteği text/event-stream bekler; hata gövdesi yine JSON yazılır
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void missingAuthenticationMapsTo401() {
+        ResponseEntity<Object> response =
+                handler.handleNotAuthenticated(new NotAuthenticatedException("Authentication required"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void invalidCursorAndLimitMapTo400() {
+        assertThat(handler.handleInvalidCursor(new InvalidCursorException("Invalid cursor")).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(handler.handleInvalidLimit(new InvalidLimitException("limit must be positive")).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void invalidImportFileMapsTo400() {
+        ResponseEntity<Object> response = handler.handleInvalidImportFile(
+                new InvalidImportFileException("CSV header must contain categoryId, date and durationHours"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void dashboardDeadlineMapsTo503() {
+        ResponseEntity<Object> response = handler.handleDashboardUnavailable(
+                new DashboardUnavailableException("Dashboard summary deadline exceeded"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,49 @@
+package com.noteapp.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/auth/** genel olarak açıktır; oturumdaki kullanıcıya ait endpoint'ler
+ * ise diğer korumalı endpoint'ler gibi token olmadan güvenlik katmanında reddedilir.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-endpoints;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "noteapp.goal-status-sweeper.enabled=false",
+        "noteapp.goal-rollover.enabled=false",
+        "noteapp.activity-sequence-aligner.enabled=false",
+        "jwt.secret=auth-endpoint-test-secret-0123456789abcdef"
+})
+class AuthEndpointSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void sessionEndpointsRequireAuthentication() throws Exception {
+        mockMvc.perform(get("/api/auth/me")).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/auth/logout-all")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/categories")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void otherAuthEndpointsStayOpen() throws Exception {
+        mockMvc.perform(get("/api/auth/")).andExpect(status().isOk());
+    }
+}
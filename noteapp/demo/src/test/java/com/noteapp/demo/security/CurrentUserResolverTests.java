@@ -0,0 +1,59 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.exception.NotAuthenticatedException;
+import com.noteapp.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CurrentUserResolverTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CurrentUserResolver resolver = new CurrentUserResolver(userRepository);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenPrincipalResolvesWithoutAQuery() {
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "me@test.com", null, AuthenticatedUser.DEFAULT_ROLES);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertThat(resolver.currentUserId()).isEqualTo(7L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void missingOrAnonymousAuthenticationIsNotAUser() {
+        assertThatThrownBy(resolver::currentUserId).isInstanceOf(NotAuthenticatedException.class);
+
+        // permitAll altındaki isteklerde bulunan token
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        assertThatThrownBy(resolver::currentUserId).isInstanceOf(NotAuthenticatedException.class);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void deletedUserIsNotAuthenticated() {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "gone@test.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        when(userRepository.findByEmail("gone@test.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(resolver::currentUserId).isInstanceOf(NotAuthenticatedException.class);
+    }
+}
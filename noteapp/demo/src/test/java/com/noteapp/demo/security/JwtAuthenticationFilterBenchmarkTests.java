@@ -0,0 +1,108 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * JwtAuthenticationFilter'ın istek başına maliyeti için mikro ölçüm.
+ * "before" eski yolu taklit eder: her çağrıda anahtar ve parser yeniden
+ * kurulup token iki kez doğrulanır. "single parse" önbelleği kapalı yeni
+ * yol, "cached" aynı token'ın tekrar geldiği olağan durumdur.
+ * Token uid taşıdığı için yeni yolda kullanıcı yüklenmez; eski yolda
+ * kullanıcı yükleme sabit bir stub'tır, sadece token işleme ölçülür.
+ * Varsayılan derlemede çalışmaz: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class JwtAuthenticationFilterBenchmarkTests {
+
+    private static final String SECRET = "benchmark-secret-0123456789abcdef0123456789";
+    private static final String EMAIL = "bench@test.com";
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    private final AuthenticatedUser principal = new AuthenticatedUser(1L, EMAIL, null, List.of("USER"));
+    private final UserDetailsService userDetailsService = username -> principal;
+    private final RevokedTokenIndex revokedTokens = new RevokedTokenIndex(mock(RevokedTokenRepository.class), 1_000);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterOverheadPerRequest() throws Exception {
+        String token = new JwtUtil(SECRET, 3_600_000L, 10_000).generateToken(principal);
+
+        double before = measure(() -> legacyAuthenticate(token));
+
+        JwtAuthenticationFilter uncached = new JwtAuthenticationFilter(
+                new JwtUtil(SECRET, 3_600_000L, 0), userDetailsService, revokedTokens);
+        double singleParse = measure(() -> runFilter(uncached, token));
+
+        JwtAuthenticationFilter cached = new JwtAuthenticationFilter(
+                new JwtUtil(SECRET, 3_600_000L, 10_000), userDetailsService, revokedTokens);
+        double afterCached = measure(() -> runFilter(cached, token));
+
+        log.info("JwtAuthenticationFilter ns/request: before={}, single parse={}, cached={}",
+                Math.round(before), Math.round(singleParse), Math.round(afterCached));
+
+        // Doğrulanmış token önbellekten gelir; HMAC ve JSON parse atlanır
+        assertThat(afterCached).isLessThan(before);
+    }
+
+    private void runFilter(JwtAuthenticationFilter filter, String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/activities");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    // Eski JwtUtil.getUsernameFromToken + validateToken: iki anahtar, iki parser, iki doğrulama
+    private void legacyAuthenticate(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/activities");
+        request.addHeader("Authorization", "Bearer " + token);
+        String header = request.getHeader("Authorization").substring(7);
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        String username = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(header).getBody().getSubject();
+        userDetailsService.loadUserByUsername(username);
+        Key again = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parserBuilder().setSigningKey(again).build().parseClaimsJws(header);
+    }
+
+    private double measure(Request request) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request.run();
+            SecurityContextHolder.clearContext();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.run();
+            SecurityContextHolder.clearContext();
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void run() throws Exception;
+    }
+}
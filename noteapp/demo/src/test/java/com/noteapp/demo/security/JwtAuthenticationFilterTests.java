@@ -0,0 +1,87 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.repository.RevokedTokenRepository;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class JwtAuthenticationFilterTests {
+
+    private static final String SECRET = "filter-test-secret-0123456789abcdef0123456789";
+    private static final String EMAIL = "filter@test.com";
+
+    private final AuthenticatedUser principal = new AuthenticatedUser(1L, EMAIL, null, List.of("USER"));
+    private final UserDetailsService userDetailsService = username -> principal;
+    private final RevokedTokenIndex revokedTokens = new RevokedTokenIndex(mock(RevokedTokenRepository.class), 1_000);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedVerificationStillAuthenticates() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, 10_000);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revokedTokens);
+        String token = jwtUtil.generateToken(principal);
+
+        for (int i = 0; i < 2; i++) {
+            runFilter(filter, token);
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo(EMAIL);
+            SecurityContextHolder.clearContext();
+        }
+
+        runFilter(filter, token.substring(0, token.length() - 2) + "xx");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void principalComesFromClaimsWithoutLoadingTheUser() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, 10_000);
+        UserDetailsService failing = username -> {
+            throw new AssertionError("token with uid must not load the user");
+        };
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, failing, revokedTokens);
+        String token = jwtUtil.generateToken(principal);
+
+        runFilter(filter, token);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isInstanceOfSatisfying(AuthenticatedUser.class, user -> {
+                    assertThat(user.getId()).isEqualTo(1L);
+                    assertThat(user.getRoles()).containsExactly("USER");
+                });
+    }
+
+    @Test
+    void revokedTokenIdIsRejected() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, 10_000);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revokedTokens);
+        IssuedToken revoked = jwtUtil.issue(principal);
+        IssuedToken other = jwtUtil.issue(principal);
+
+        revokedTokens.revoke(revoked.id(), 1L, revoked.expiresAt());
+
+        runFilter(filter, revoked.value());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        runFilter(filter, other.value());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    private void runFilter(JwtAuthenticationFilter filter, String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/activities");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
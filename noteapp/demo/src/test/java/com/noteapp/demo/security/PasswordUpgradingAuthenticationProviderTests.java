@@ -0,0 +1,84 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordUpgradingAuthenticationProviderTests {
+
+    private static final String EMAIL = "upgrade@test.com";
+    private static final String PASSWORD = "secret-password";
+
+    private final String weakHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+    private final List<String> savedHashes = new ArrayList<>();
+    private final UserDetailsPasswordService passwordService = (user, newPassword) -> {
+        savedHashes.add(newPassword);
+        return new AuthenticatedUser(1L, user.getUsername(), newPassword, AuthenticatedUser.DEFAULT_ROLES);
+    };
+
+    @Test
+    void weakerHashIsRewrittenOnSuccessfulLogin() {
+        BCryptPasswordEncoder stronger = new BCryptPasswordEncoder(5);
+
+        Authentication result = login(stronger);
+
+        assertThat(result.isAuthenticated()).isTrue();
+        assertThat(savedHashes).singleElement().satisfies(hash -> {
+            assertThat(stronger.matches(PASSWORD, hash)).isTrue();
+            assertThat(stronger.upgradeEncoding(hash)).isFalse();
+        });
+    }
+
+    @Test
+    void busyHashingPoolDoesNotFailAVerifiedLogin() {
+        BCryptPasswordEncoder stronger = new BCryptPasswordEncoder(5);
+        // Parola doğrulandıktan sonra havuz dolar; yükseltme için encode reddedilir
+        AtomicBoolean saturated = new AtomicBoolean();
+        PasswordEncoder busyAfterMatch = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (saturated.get()) {
+                    throw new PasswordHashingBusyException(Duration.ofSeconds(1));
+                }
+                return stronger.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                boolean matches = stronger.matches(rawPassword, encodedPassword);
+                saturated.set(true);
+                return matches;
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return stronger.upgradeEncoding(encodedPassword);
+            }
+        };
+
+        Authentication result = login(busyAfterMatch);
+
+        assertThat(result.isAuthenticated()).isTrue();
+        assertThat(result.getName()).isEqualTo(EMAIL);
+        assertThat(savedHashes).isEmpty();
+    }
+
+    private Authentication login(PasswordEncoder encoder) {
+        UserDetails stored = new AuthenticatedUser(1L, EMAIL, weakHash, AuthenticatedUser.DEFAULT_ROLES);
+        PasswordUpgradingAuthenticationProvider provider =
+                new PasswordUpgradingAuthenticationProvider(username -> stored, encoder, passwordService);
+        return provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD));
+    }
+}
@@ -0,0 +1,77 @@
+package com.noteapp.demo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    @Test
+    void perIpBudgetOnlyCoversLoginAndRegister() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper(), new SimpleMeterRegistry());
+
+        assertThat(status(filter, "/api/auth/login")).isEqualTo(200);
+        assertThat(status(filter, "/api/auth/login")).isEqualTo(429);
+        // Ayrı kova: login bütçesi register'ı tüketmez
+        assertThat(status(filter, "/api/auth/register")).isEqualTo(200);
+        for (int i = 0; i < 5; i++) {
+            assertThat(status(filter, "/api/auth/refresh")).isEqualTo(200);
+            assertThat(status(filter, "/api/auth/me")).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void nonPositiveRefillRateFailsStartup() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+                .withUserConfiguration(RateLimitConfig.class)
+                .withPropertyValues(
+                        "noteapp.rate-limit.routes[0].pattern=/api/**",
+                        "noteapp.rate-limit.routes[0].capacity=10",
+                        "noteapp.rate-limit.routes[0].refill-per-second=0")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("refillPerSecond"));
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(
+                route("/api/auth/login", 1, true),
+                route("/api/auth/register", 1, true),
+                route("/api/**", 100, false)));
+        return properties;
+    }
+
+    private static RateLimitProperties.Route route(String pattern, int capacity, boolean perIp) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern(pattern);
+        route.setCapacity(capacity);
+        route.setRefillPerSecond(0.001);
+        route.setPerIp(perIp);
+        return route;
+    }
+
+    private static int status(RateLimitFilter filter, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(RateLimitProperties.class)
+    static class RateLimitConfig {
+    }
+}
@@ -0,0 +1,64 @@
+package com.noteapp.demo.security;
+
+import com.noteapp.demo.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RevokedTokenIndexTests {
+
+    @Test
+    void noFalseNegativesOrPositivesAfterGrowingAndPurging() {
+        RevokedTokenIndex index = new RevokedTokenIndex(mock(RevokedTokenRepository.class), 64);
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String id = UUID.randomUUID().toString();
+            ids.add(id);
+            index.revoke(id, 1L, expiresAt);
+        }
+        index.purge();
+
+        assertThat(ids).allMatch(index::isRevoked);
+        long falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (index.isRevoked(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        // Bloom "olabilir" dese de kesin küme yanlış pozitifleri eler
+        assertThat(falsePositives).isZero();
+    }
+
+    @Test
+    void revocationBecomesVisibleOnlyAfterCommit() {
+        RevokedTokenIndex index = new RevokedTokenIndex(mock(RevokedTokenRepository.class), 64);
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.revoke("committed", 1L, expiresAt);
+            index.revoke("rolled-back", 1L, expiresAt);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertThat(index.isRevoked("committed")).isFalse();
+
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations.subList(0, 1));
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations.subList(1, 2),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.isRevoked("committed")).isTrue();
+        assertThat(index.isRevoked("rolled-back")).isFalse();
+    }
+}
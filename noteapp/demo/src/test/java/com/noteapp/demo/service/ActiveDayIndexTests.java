@@ -0,0 +1,75 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActiveDayIndexTests {
+
+    private static final Long USER = 1L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+
+    private final DailyTotalRepository repository = mock(DailyTotalRepository.class);
+    private final ActiveDayIndex index = new ActiveDayIndex(repository, 100, Duration.ofHours(1), Duration.ofMinutes(5));
+
+    @Test
+    void changeCommittedAfterLoadIsPatchedInPlace() {
+        when(repository.findActiveDates(USER)).thenReturn(List.of(TODAY.minusDays(1)));
+        assertThat(index.getStreaks(USER, TODAY).getCurrentStreak()).isZero();
+
+        index.onActivityChanged(new ActivityChangedEvent(USER, List.of(ActivityDelta.added(TODAY, 5L, 1.0))));
+
+        assertThat(index.getStreaks(USER, TODAY).getCurrentStreak()).isEqualTo(2);
+        verify(repository, times(1)).findActiveDates(USER);
+    }
+
+    @Test
+    void loadFinishingAfterPublishIsDroppedInsteadOfPatched() {
+        // Olay yayınlandıktan sonra biten yükleme commit'i görmüş olabilir
+        ActivityChangedEvent event = new ActivityChangedEvent(USER, List.of(ActivityDelta.removed(TODAY, 5L, 1.0)));
+        when(repository.findActiveDates(USER)).thenReturn(List.of(TODAY));
+        index.getStreaks(USER, TODAY);
+
+        index.onActivityChanged(event);
+
+        when(repository.findActiveDates(USER)).thenReturn(List.of());
+        assertThat(index.getStreaks(USER, TODAY).getCurrentStreak()).isZero();
+        verify(repository, times(2)).findActiveDates(USER);
+    }
+
+    @Test
+    void removalChecksRemainingActivityOutsideTheEntryLock() {
+        when(repository.findActiveDates(USER)).thenReturn(List.of(TODAY.minusDays(1), TODAY));
+        index.getStreaks(USER, TODAY);
+        when(repository.existsForDay(eq(USER), any())).thenReturn(false);
+
+        index.onActivityChanged(new ActivityChangedEvent(USER, List.of(ActivityDelta.removed(TODAY, 5L, 1.0))));
+
+        assertThat(index.getStreaks(USER, TODAY).getCurrentStreak()).isZero();
+        assertThat(index.countActiveDays(USER, TODAY.minusDays(7), TODAY)).isEqualTo(1);
+    }
+
+    @Test
+    void daysOutsideTheSupportedWindowAreIgnored() {
+        when(repository.findActiveDates(USER)).thenReturn(List.of(LocalDate.of(1, 1, 1), TODAY));
+        index.onActivityChanged(new ActivityChangedEvent(USER, List.of()));
+
+        assertThat(index.countActiveDays(USER, LocalDate.of(1, 1, 1), TODAY)).isEqualTo(1);
+        index.onActivityChanged(new ActivityChangedEvent(USER,
+                List.of(ActivityDelta.added(LocalDate.of(999_999, 1, 1), 5L, 1.0))));
+        assertThat(index.getStreaks(USER, TODAY).getLongestStreak()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.PostgresIntegrationTest;
+import com.noteapp.demo.dto.ActivityImportResult;
+import com.noteapp.demo.dto.ActivityRequest;
+import com.noteapp.demo.exception.InvalidImportFileException;
+import com.noteapp.demo.model.ActivityFileFormat;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.ActivityRepository;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * İçe aktarma, günlük toplamları PostgreSQL'e özgü upsert ile güncellediği
+ * için gerçek veritabanında sınanır. Docker yoksa atlanır.
+ */
+class ActivityImportTests extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 4, 1);
+
+    @Autowired
+    private ActivityImportService activityImportService;
+    @Autowired
+    private ActivityExportService activityExportService;
+    @Autowired
+    private ActivityService activityService;
+    @Autowired
+    private DailyTotalService dailyTotalService;
+    @Autowired
+    private ActivityRepository activityRepository;
+    @Autowired
+    private DailyTotalRepository dailyTotalRepository;
+
+    private Long userId;
+    private Long reading;
+    private Long running;
+
+    @BeforeEach
+    void seed() {
+        User user = createUser("Import");
+        userId = user.getId();
+        reading = createCategory(user, "Reading, \"classics\"").getId();
+        running = createCategory(user, "Running").getId();
+        signIn(user);
+    }
+
+    @Test
+    void exportedCsvWithQuotedCategoryNamesImportsBack() throws IOException {
+        activityService.createActivity(new ActivityRequest(reading, DAY, 1.5));
+        activityService.createActivity(new ActivityRequest(reading, DAY.plusDays(1), 2.0));
+        activityService.createActivity(new ActivityRequest(running, DAY, 1.0));
+        Map<String, Double> before = totals();
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        activityExportService.export(ActivityFileFormat.CSV, null, null).writeTo(exported);
+        ActivityImportResult result = activityImportService.importActivities(
+                new StringReader(exported.toString(StandardCharsets.UTF_8)), ActivityFileFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isZero();
+        assertThat(totals()).isEqualTo(before.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() * 2)));
+    }
+
+    @Test
+    void batchesCommitIndependentlyWhenTheUploadBreaks() {
+        String rows = "categoryId,date,durationHours\n" +
+                reading + "," + DAY + ",1.0\n" +
+                reading + "," + DAY + ",1.0\n" +
+                running + "," + DAY + ",0.5\n" +
+                running + "," + DAY.plusDays(1) + ",0.5\n" +
+                reading + "," + DAY.plusDays(2) + ",3.0\n";
+
+        assertThatThrownBy(() -> activityImportService.importActivities(
+                brokenAfter(rows), ActivityFileFormat.CSV)).isInstanceOf(UncheckedIOException.class);
+
+        // İki tam batch kalıcı; bekleyen beşinci satır ve toplamlara katkısı yok
+        assertThat(activityRepository.countByUserId(userId)).isEqualTo(4);
+        Map<String, Double> incremental = totals();
+        dailyTotalService.rebuild(userId);
+        assertThat(totals()).isEqualTo(incremental).doesNotContainKey(DAY.plusDays(2) + "#" + reading);
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsRejectsTheFile() {
+        String rows = "category,date,hours\n" + reading + "," + DAY + ",1.0\n";
+
+        assertThatThrownBy(() -> activityImportService.importActivities(
+                new StringReader(rows), ActivityFileFormat.CSV)).isInstanceOf(InvalidImportFileException.class);
+        assertThat(activityRepository.countByUserId(userId)).isZero();
+    }
+
+    private Map<String, Double> totals() {
+        return dailyTotalRepository.findAllByUserId(userId).stream()
+                .collect(Collectors.toMap(
+                        t -> t.getId().getDate() + "#" + t.getId().getCategoryId(),
+                        DailyTotal::getHours));
+    }
+
+    // Verilen içerikten sonra bağlantı kopmuş gibi hata veren gövde
+    private static Reader brokenAfter(String content) {
+        return new Reader() {
+            private final StringReader delegate = new StringReader(content);
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = delegate.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("Connection reset");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Yazma sonrası silmenin sadece değişen kullanıcının, değişen günü kapsayan
+ * pencerelerini düşürdüğünü doğrular.
+ */
+class AnalyticsCacheTests {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+    private static final LocalDate FEB_28 = LocalDate.of(2025, 2, 28);
+
+    private final AnalyticsCache cache = new AnalyticsCache(1_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void activityChangeEvictsOnlyCoveringWindowsOfThatUser() {
+        load(1L, JAN_1, JAN_31);
+        load(1L, FEB_1, FEB_28);
+        load(2L, JAN_1, JAN_31);
+        assertThat(loads).hasValue(3);
+
+        cache.onActivityChanged(new ActivityChangedEvent(1L, List.of(ActivityDelta.added(JAN_1.plusDays(9), 7L, 1.0))));
+
+        load(1L, JAN_1, JAN_31);
+        load(1L, FEB_1, FEB_28);
+        load(2L, JAN_1, JAN_31);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void evictUserDropsAllOfTheUsersWindowsAndKeepsWorkingAfterReload() {
+        load(1L, JAN_1, JAN_31);
+        load(1L, FEB_1, FEB_28);
+        load(2L, JAN_1, JAN_31);
+
+        cache.evictUser(1L);
+        load(1L, JAN_1, JAN_31);
+        load(1L, FEB_1, FEB_28);
+        load(2L, JAN_1, JAN_31);
+        assertThat(loads).hasValue(5);
+
+        // Yeniden yüklenen anahtarlar tekrar indekslenir
+        cache.onActivityChanged(new ActivityChangedEvent(1L, List.of(ActivityDelta.removed(FEB_1, 7L, 1.0))));
+        load(1L, FEB_1, FEB_28);
+        assertThat(loads).hasValue(6);
+    }
+
+    @Test
+    void resultComputedOutsideTheLockIsNotCachedWhenDataChangedMeanwhile() {
+        cache.getOrCompute(1L, "test", null, JAN_31, () -> {
+            cache.onActivityChanged(new ActivityChangedEvent(1L, List.of(ActivityDelta.added(JAN_1, 7L, 1.0))));
+            return loads.incrementAndGet();
+        });
+        cache.getOrCompute(1L, "test", null, JAN_31, loads::incrementAndGet);
+        cache.getOrCompute(1L, "test", null, JAN_31, loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+
+        // Önbelleğe yazılan sonuç da kullanıcı indeksine girer
+        cache.onActivityChanged(new ActivityChangedEvent(1L, List.of(ActivityDelta.added(JAN_1, 7L, 1.0))));
+        cache.getOrCompute(1L, "test", null, JAN_31, loads::incrementAndGet);
+        assertThat(loads).hasValue(3);
+    }
+
+    private void load(Long userId, LocalDate startDate, LocalDate endDate) {
+        cache.get(userId, "test", startDate, endDate, loads::incrementAndGet);
+    }
+}
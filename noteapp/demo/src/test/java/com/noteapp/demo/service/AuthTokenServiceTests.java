@@ -0,0 +1,147 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.dto.AuthResponse;
+import com.noteapp.demo.exception.InvalidRefreshTokenException;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.RevokedTokenRepository;
+import com.noteapp.demo.repository.UserRepository;
+import com.noteapp.demo.security.AuthenticatedUser;
+import com.noteapp.demo.security.JwtUtil;
+import com.noteapp.demo.security.RevokedTokenIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refresh rotasyonu, tekrar kullanımda aile iptali, logout ve kullanıcı
+ * iptali. İptallerin veritabanına yazıldığını ve sıfırdan yüklenen bir
+ * indeksin (yeniden başlatma veya başka instance) bunları gördüğünü doğrular.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-tokens;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "noteapp.goal-status-sweeper.enabled=false",
+        "noteapp.goal-rollover.enabled=false",
+        "noteapp.activity-sequence-aligner.enabled=false",
+        "noteapp.token-revocation.enabled=false",
+        "jwt.secret=auth-token-test-secret-0123456789abcdef"
+})
+class AuthTokenServiceTests {
+
+    @Autowired
+    private AuthTokenService authTokenService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    @Autowired
+    private RevokedTokenIndex revokedTokenIndex;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void seed() {
+        User user = userRepository.save(User.builder()
+                .name("Tokens")
+                .email("tokens-" + UUID.randomUUID() + "@test.com")
+                .password("x")
+                .build());
+        principal = AuthenticatedUser.of(user);
+    }
+
+    @Test
+    void refreshRotatesThePairAndKeepsTheFamilyUsable() {
+        AuthResponse first = authTokenService.issue(principal);
+
+        AuthResponse second = authTokenService.refresh(first.getRefreshToken());
+
+        assertThat(second.getRefreshToken()).isNotEqualTo(first.getRefreshToken());
+        assertThat(jti(second)).isNotEqualTo(jti(first));
+        assertThat(jwtUtil.verify(second.getToken()).toPrincipal().getId()).isEqualTo(principal.getId());
+        // Rotasyon önceki access token'ı iptal etmez; kendi exp'inde düşer
+        assertThat(revokedTokenIndex.isRevoked(jti(first))).isFalse();
+        assertThat(authTokenService.refresh(second.getRefreshToken()).getToken()).isNotBlank();
+    }
+
+    @Test
+    void reusedRefreshTokenRevokesTheWholeFamily() {
+        AuthResponse first = authTokenService.issue(principal);
+        AuthResponse second = authTokenService.refresh(first.getRefreshToken());
+        AuthResponse latest = authTokenService.refresh(second.getRefreshToken());
+        AuthResponse otherDevice = authTokenService.issue(principal);
+
+        assertThatThrownBy(() -> authTokenService.refresh(first.getRefreshToken()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        // Çalınmış olabilir: meşru sahibin en yeni token'ı da dahil aile kapanır
+        assertThatThrownBy(() -> authTokenService.refresh(latest.getRefreshToken()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        for (AuthResponse member : List.of(first, second, latest)) {
+            assertThat(revokedTokenIndex.isRevoked(jti(member))).isTrue();
+        }
+        assertThat(revokedTokenIndex.isRevoked(jti(otherDevice))).isFalse();
+        assertThat(authTokenService.refresh(otherDevice.getRefreshToken()).getToken()).isNotBlank();
+    }
+
+    @Test
+    void logoutRevokesAccessTokenAndRefreshFamily() {
+        AuthResponse first = authTokenService.issue(principal);
+        AuthResponse current = authTokenService.refresh(first.getRefreshToken());
+        AuthResponse otherDevice = authTokenService.issue(principal);
+
+        authTokenService.logout(current.getToken(), current.getRefreshToken());
+
+        assertThat(revokedTokenIndex.isRevoked(jti(current))).isTrue();
+        assertThatThrownBy(() -> authTokenService.refresh(current.getRefreshToken()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(revokedTokenIndex.isRevoked(jti(otherDevice))).isFalse();
+        assertThat(authTokenService.refresh(otherDevice.getRefreshToken()).getToken()).isNotBlank();
+    }
+
+    @Test
+    void revokeUserEndsEverySessionAndSurvivesReload() {
+        AuthResponse phone = authTokenService.issue(principal);
+        AuthResponse laptop = authTokenService.issue(principal);
+        AuthResponse otherUser = authTokenService.issue(AuthenticatedUser.of(userRepository.save(User.builder()
+                .name("Other")
+                .email("other-" + UUID.randomUUID() + "@test.com")
+                .password("x")
+                .build())));
+
+        authTokenService.revokeUser(principal.getId());
+
+        for (AuthResponse session : List.of(phone, laptop)) {
+            assertThat(revokedTokenIndex.isRevoked(jti(session))).isTrue();
+            assertThatThrownBy(() -> authTokenService.refresh(session.getRefreshToken()))
+                    .isInstanceOf(InvalidRefreshTokenException.class);
+        }
+        assertThat(revokedTokenIndex.isRevoked(jti(otherUser))).isFalse();
+        assertThat(authTokenService.refresh(otherUser.getRefreshToken()).getToken()).isNotBlank();
+
+        // İptaller kalıcıdır: yeniden yüklenen indeks de görür
+        RevokedTokenIndex reloaded = new RevokedTokenIndex(revokedTokenRepository, 64);
+        reloaded.load();
+        assertThat(reloaded.isRevoked(jti(phone))).isTrue();
+        assertThat(reloaded.isRevoked(jti(laptop))).isTrue();
+    }
+
+    private String jti(AuthResponse response) {
+        return jwtUtil.verify(response.getToken()).id();
+    }
+}
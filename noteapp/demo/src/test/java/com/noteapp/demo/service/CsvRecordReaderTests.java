@@ -0,0 +1,51 @@
+package com.noteapp.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTests {
+
+    @Test
+    void quotedFieldsMayContainCommasQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "id,name,date\r\n" +
+                "1,\"Reading, fiction\",2025-01-01\r\n" +
+                "2,\"The \"\"classics\"\"\",2025-01-02\n" +
+                "3,\"two\nlines\",2025-01-03\n" +
+                "4,,\n"));
+
+        assertThat(reader.next()).containsExactly("id", "name", "date");
+        assertThat(reader.next()).containsExactly("1", "Reading, fiction", "2025-01-01");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("2", "The \"classics\"", "2025-01-02");
+        assertThat(reader.next()).containsExactly("3", "two\nlines", "2025-01-03");
+        assertThat(reader.next()).containsExactly("4", "", "");
+        // Çok satırlı alandan sonra satır numarası fiziksel satırı gösterir
+        assertThat(reader.recordLine()).isEqualTo(6);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void lastRecordWithoutLineBreakAndUnterminatedQuote() throws IOException {
+        CsvRecordReader complete = new CsvRecordReader(new StringReader("1,2"));
+        assertThat(complete.next()).containsExactly("1", "2");
+        assertThat(complete.next()).isNull();
+
+        CsvRecordReader broken = new CsvRecordReader(new StringReader("1,\"open\n2,3\n"));
+        assertThatThrownBy(broken::next).isInstanceOf(IllegalArgumentException.class);
+        assertThat(broken.next()).isNull();
+    }
+
+    @Test
+    void blankLineIsASingleEmptyField() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\n1\n"));
+        assertThat(reader.next()).isEqualTo(List.of(""));
+        assertThat(reader.next()).containsExactly("1");
+    }
+}
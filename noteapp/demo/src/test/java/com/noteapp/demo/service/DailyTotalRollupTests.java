@@ -0,0 +1,227 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.PostgresIntegrationTest;
+import com.noteapp.demo.dto.ActivityRequest;
+import com.noteapp.demo.dto.ActivityResponse;
+import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.model.Goal;
+import com.noteapp.demo.model.GoalStatus;
+import com.noteapp.demo.model.GoalType;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.ActivityRepository;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.repository.GoalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * daily_totals yazma yolu (insert ... on conflict do update ve boş satır
+ * silme) PostgreSQL'e özgü olduğu için gerçek veritabanında sınanır.
+ * Docker yoksa atlanır.
+ */
+class DailyTotalRollupTests extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 3, 10);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 3, 11);
+
+    @Autowired
+    private ActivityService activityService;
+    @Autowired
+    private DailyTotalService dailyTotalService;
+    @Autowired
+    private DailyTotalRepository dailyTotalRepository;
+    @Autowired
+    private GoalRepository goalRepository;
+    @Autowired
+    private ActivityRepository activityRepository;
+    @Autowired
+    private DailyTotalBackfillRunner backfillRunner;
+    @Autowired
+    private PrefixSumIndex prefixSumIndex;
+    @Autowired
+    private ActiveDayIndex activeDayIndex;
+    @Autowired
+    private TransactionTemplate transaction;
+
+    private User user;
+    private Long userId;
+    private Long reading;
+    private Long running;
+
+    @BeforeEach
+    void seed() {
+        user = createUser("Rollup");
+        userId = user.getId();
+        reading = createCategory(user, "Reading").getId();
+        running = createCategory(user, "Running").getId();
+        signIn(user);
+    }
+
+    @Test
+    void createUpdateAndDeleteKeepTotalsInSync() {
+        ActivityResponse first = activityService.createActivity(new ActivityRequest(reading, DAY_1, 1.5));
+        ActivityResponse second = activityService.createActivity(new ActivityRequest(reading, DAY_1, 2.0));
+        ActivityResponse third = activityService.createActivity(new ActivityRequest(running, DAY_2, 1.0));
+
+        assertThat(totals()).containsOnly(
+                Map.entry(key(DAY_1, reading), "3.5/2"),
+                Map.entry(key(DAY_2, running), "1.0/1"));
+
+        // Gün ve kategori değişince eski hücreden düşülür, yenisine eklenir
+        activityService.updateActivity(second.getId(), new ActivityRequest(running, DAY_2, 0.5));
+        assertThat(totals()).containsOnly(
+                Map.entry(key(DAY_1, reading), "1.5/1"),
+                Map.entry(key(DAY_2, running), "1.5/2"));
+
+        activityService.deleteActivity(third.getId());
+        assertThat(totals()).containsOnly(
+                Map.entry(key(DAY_1, reading), "1.5/1"),
+                Map.entry(key(DAY_2, running), "0.5/1"));
+
+        // Son aktivitesi silinen hücre tablodan kalkar
+        activityService.deleteActivity(first.getId());
+        assertThat(totals()).containsOnly(Map.entry(key(DAY_2, running), "0.5/1"));
+    }
+
+    @Test
+    void incrementalTotalsMatchRebuildFromActivities() {
+        activityService.createActivity(new ActivityRequest(reading, DAY_1, 1.25));
+        ActivityResponse moved = activityService.createActivity(new ActivityRequest(reading, DAY_1, 0.75));
+        activityService.createActivity(new ActivityRequest(running, DAY_2, 3.0));
+        activityService.updateActivity(moved.getId(), new ActivityRequest(running, DAY_1, 0.75));
+
+        Map<String, String> incremental = totals();
+        dailyTotalService.rebuild(userId);
+
+        assertThat(totals()).isEqualTo(incremental);
+    }
+
+    @Test
+    void goalProgressFollowsGoalsSavedOnAnotherNode() {
+        // Hedef olay yayınlanmadan (başka düğümdeymiş gibi) eklenir
+        Goal goal = goalRepository.save(Goal.builder()
+                .user(userRepository.getReferenceById(userId))
+                .title("All")
+                .type(GoalType.CUSTOM)
+                .targetHours(2.0)
+                .startDate(DAY_1)
+                .endDate(DAY_2)
+                .currentHours(0.0)
+                .status(GoalStatus.ACTIVE)
+                .build());
+
+        activityService.createActivity(new ActivityRequest(reading, DAY_1, 1.5));
+        activityService.createActivity(new ActivityRequest(running, DAY_2, 1.0));
+
+        Goal stored = goalRepository.findById(goal.getId()).orElseThrow();
+        assertThat(stored.getCurrentHours()).isEqualTo(2.5);
+        assertThat(stored.getStatus()).isEqualTo(GoalStatus.COMPLETED);
+    }
+
+    @Test
+    void missingRollupIsBuiltAtStartupAndStaleEntriesAreDropped() {
+        // Rollup'tan önce yazılmış gibi: aktivite var, daily_totals satırı yok
+        activityRepository.save(Activity.builder()
+                .user(user)
+                .category(categoryRepository.getReferenceById(reading))
+                .date(DAY_1)
+                .durationHours(2.0)
+                .build());
+        assertThat(userRepository.findIdsMissingDailyTotals()).contains(userId);
+        assertThat(prefixSumIndex.sum(userId, null, DAY_1, DAY_2)).isZero();
+        assertThat(activeDayIndex.countActiveDays(userId, DAY_1, DAY_2)).isZero();
+
+        backfillRunner.afterSingletonsInstantiated();
+
+        assertThat(userRepository.findIdsMissingDailyTotals()).doesNotContain(userId);
+        assertThat(totals()).containsOnly(Map.entry(key(DAY_1, reading), "2.0/1"));
+        // Boş tablodan yüklenmiş girişler yeniden kurulumla bırakıldı
+        assertThat(prefixSumIndex.sum(userId, null, DAY_1, DAY_2)).isEqualTo(2.0);
+        assertThat(activeDayIndex.countActiveDays(userId, DAY_1, DAY_2)).isEqualTo(1);
+    }
+
+    @Test
+    void goalsWithoutProgressAreBackfilledOnlyFromACompleteRollup() {
+        // İlk dağıtım: süresi geçmiş, ilerlemesi hiç yazılmamış hedef ve rollup'sız aktivite
+        activityRepository.save(Activity.builder()
+                .user(user)
+                .category(categoryRepository.getReferenceById(reading))
+                .date(DAY_1)
+                .durationHours(2.0)
+                .build());
+        Goal goal = goalRepository.save(Goal.builder()
+                .user(user)
+                .title("Legacy")
+                .type(GoalType.CUSTOM)
+                .targetHours(2.0)
+                .startDate(DAY_1)
+                .endDate(DAY_2)
+                .build());
+
+        backfillRunner.afterSingletonsInstantiated();
+
+        Goal stored = goalRepository.findById(goal.getId()).orElseThrow();
+        assertThat(stored.getCurrentHours()).isEqualTo(2.0);
+        assertThat(stored.getStatus()).isEqualTo(GoalStatus.COMPLETED);
+    }
+
+    @Test
+    void activityWritesWaitForAnInFlightRebuild() throws Exception {
+        activityService.createActivity(new ActivityRequest(reading, DAY_1, 1.0));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            dailyTotalService.rebuild(userId);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<ActivityResponse> write = CompletableFuture.supplyAsync(() -> {
+            signIn(user);
+            return activityService.createActivity(new ActivityRequest(running, DAY_2, 2.0));
+        });
+        // Yeniden kurulumun kilitlemediği yeni bir hücre de olsa yazma commit'e kadar bekler
+        assertThatThrownBy(() -> write.get(1, TimeUnit.SECONDS)).isInstanceOf(TimeoutException.class);
+
+        release.countDown();
+        rebuild.get(30, TimeUnit.SECONDS);
+        write.get(30, TimeUnit.SECONDS);
+        assertThat(totals()).containsOnly(
+                Map.entry(key(DAY_1, reading), "1.0/1"),
+                Map.entry(key(DAY_2, running), "2.0/1"));
+    }
+
+    private Map<String, String> totals() {
+        return dailyTotalRepository.findAllByUserId(userId).stream()
+                .collect(Collectors.toMap(
+                        t -> key(t.getId().getDate(), t.getId().getCategoryId()),
+                        DailyTotalRollupTests::value));
+    }
+
+    private static String key(LocalDate date, Long categoryId) {
+        return date + "#" + categoryId;
+    }
+
+    private static String value(DailyTotal total) {
+        return total.getHours() + "/" + total.getActivityCount();
+    }
+}
@@ -0,0 +1,94 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.dto.ActivityPoint;
+import com.noteapp.demo.dto.DashboardSummary;
+import com.noteapp.demo.exception.DashboardUnavailableException;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Eşzamanlı modun seri modla aynı özeti ürettiğini ve süre sınırının, kesmeye
+ * tepki vermeyen yavaş bir sorguyu beklemeden uygulandığını doğrular.
+ */
+class DashboardServiceTests {
+
+    private static final Long USER = 1L;
+
+    private final DailyTotalRepository repository = mock(DailyTotalRepository.class);
+    private final CurrentUserResolver currentUserResolver = mock(CurrentUserResolver.class);
+    private DashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        when(currentUserResolver.currentUser()).thenReturn(User.builder().id(USER).build());
+        when(repository.findActiveDates(USER)).thenReturn(List.of(today.minusDays(1), today));
+        when(repository.findPoints(eq(USER), any(), any())).thenReturn(List.of(
+                new ActivityPoint(today.minusDays(1), "Work", 2.0),
+                new ActivityPoint(today, "Work", 1.0),
+                new ActivityPoint(today, "Sport", 0.5)));
+        service = newService();
+    }
+
+    @Test
+    void concurrentModeMatchesSerialMode() {
+        DashboardSummary serial = service.getDashboardSummary();
+
+        DashboardService concurrent = newService();
+        ReflectionTestUtils.setField(concurrent, "executionMode", "concurrent");
+        DashboardSummary summary = concurrent.getDashboardSummary();
+
+        assertThat(summary).usingRecursiveComparison().isEqualTo(serial);
+        assertThat(summary.getCurrentStreak()).isEqualTo(2);
+        assertThat(summary.getCategoryPerformance()).containsEntry("Work", 3.0);
+    }
+
+    @Test
+    void deadlineIsEnforcedEvenWhenTheQueryIgnoresInterrupts() {
+        when(repository.findPoints(eq(USER), any(), any())).thenAnswer(invocation -> {
+            // JDBC çağrısı gibi: kesme yok sayılır, süre dolana kadar döner
+            long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < until) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            return List.of();
+        });
+        ReflectionTestUtils.setField(service, "executionMode", "concurrent");
+        ReflectionTestUtils.setField(service, "deadline", Duration.ofMillis(200));
+
+        long started = System.nanoTime();
+        assertThatThrownBy(service::getDashboardSummary)
+                .isInstanceOf(DashboardUnavailableException.class)
+                .hasMessageContaining("deadline");
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    private DashboardService newService() {
+        DashboardService dashboard = new DashboardService(repository, currentUserResolver,
+                new ActiveDayIndex(repository, 100, Duration.ofHours(1), Duration.ofMinutes(5)),
+                new AnalyticsCache(1_000, Duration.ofMinutes(10), new SimpleMeterRegistry()),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dashboard, "executionMode", "serial");
+        ReflectionTestUtils.setField(dashboard, "deadline", Duration.ofSeconds(30));
+        return dashboard;
+    }
+}
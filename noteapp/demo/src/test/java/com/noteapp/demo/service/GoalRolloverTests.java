@@ -0,0 +1,124 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.PostgresIntegrationTest;
+import com.noteapp.demo.model.Category;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.model.DailyTotalId;
+import com.noteapp.demo.model.Goal;
+import com.noteapp.demo.model.GoalStatus;
+import com.noteapp.demo.model.GoalTemplate;
+import com.noteapp.demo.model.GoalType;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import com.noteapp.demo.repository.GoalRepository;
+import com.noteapp.demo.repository.GoalTemplateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rollover parça döngüsü (for update skip locked ile kilitleme ve
+ * on conflict do nothing ile üretim) PostgreSQL'e özgü olduğu için gerçek
+ * veritabanında sınanır: tekrar çalıştırma, yarıda kalan işe devam ve aynı
+ * anda çalışan iki düğüm aynı dönem için ikinci bir hedef üretmemeli.
+ * Docker yoksa atlanır.
+ */
+class GoalRolloverTests extends PostgresIntegrationTest {
+
+    private static final int TEMPLATES = 5;
+    // Parça boyutu şablon sayısından küçük: döngü birden çok parçadan geçer
+    private static final int CHUNK_SIZE = 2;
+    private static final LocalDate PERIOD_START = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private GoalRolloverService goalRolloverService;
+    @Autowired
+    private DailyTotalRepository dailyTotalRepository;
+    @Autowired
+    private GoalTemplateRepository goalTemplateRepository;
+    @Autowired
+    private GoalRepository goalRepository;
+
+    private User user;
+    private List<GoalTemplate> templates;
+
+    @BeforeEach
+    void seed() {
+        goalRepository.deleteAll();
+        goalTemplateRepository.deleteAll();
+        user = createUser("Rollover");
+        Category reading = createCategory(user, "Reading");
+        dailyTotalRepository.save(new DailyTotal(
+                new DailyTotalId(user.getId(), PERIOD_START.plusDays(1), reading.getId()), 3.0, 1));
+
+        templates = goalTemplateRepository.saveAll(IntStream.range(0, TEMPLATES)
+                .mapToObj(i -> GoalTemplate.builder()
+                        .user(user)
+                        .category(reading)
+                        .title("Weekly " + i)
+                        .type(GoalType.WEEKLY)
+                        .targetHours(i < 2 ? 2.0 : 10.0)
+                        .build())
+                .toList());
+        goalTemplateRepository.save(GoalTemplate.builder()
+                .user(user)
+                .title("Paused")
+                .type(GoalType.WEEKLY)
+                .targetHours(1.0)
+                .active(false)
+                .build());
+    }
+
+    @Test
+    void rerunCreatesNoSecondGoalForThePeriod() {
+        assertThat(rollover()).isEqualTo(TEMPLATES);
+        assertThat(rollover()).isZero();
+
+        List<Goal> goals = goalRepository.findByUser(user);
+        assertThat(goals).hasSize(TEMPLATES).allSatisfy(goal -> {
+            assertThat(goal.getStartDate()).isEqualTo(PERIOD_START);
+            assertThat(goal.getEndDate()).isEqualTo(PERIOD_START.plusDays(6));
+            assertThat(goal.getCurrentHours()).isEqualTo(3.0);
+        });
+        assertThat(goals).filteredOn(goal -> goal.getStatus() == GoalStatus.COMPLETED).hasSize(2);
+    }
+
+    @Test
+    void resumingAfterLostMarksDoesNotDuplicateGoals() {
+        rollover();
+        // Hedefler üretilmiş ama işaretleme kaybolmuş gibi: şablonlar tekrar işlenir
+        for (GoalTemplate template : templates.subList(0, 3)) {
+            template.setLastPeriodStart(null);
+            goalTemplateRepository.save(template);
+        }
+
+        assertThat(rollover()).isZero();
+        assertThat(goalRepository.findByUser(user)).hasSize(TEMPLATES);
+        assertThat(goalTemplateRepository.findAll()).filteredOn(GoalTemplate::getActive)
+                .allSatisfy(template -> assertThat(template.getLastPeriodStart()).isEqualTo(PERIOD_START));
+    }
+
+    @Test
+    void concurrentRunsProcessEachTemplateOnce() {
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(this::rollover);
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(this::rollover);
+
+        assertThat(first.join() + second.join()).isEqualTo(TEMPLATES);
+        assertThat(goalRepository.findByUser(user)).hasSize(TEMPLATES);
+    }
+
+    // Zamanlanmış işin parça döngüsü; üretilen hedef sayısını döner
+    private long rollover() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new GoalRolloverJob(goalRolloverService, registry, CHUNK_SIZE).rollover(GoalType.WEEKLY, PERIOD_START);
+        return (long) registry.counter("goals.rollover.created", "type", GoalType.WEEKLY.name()).count();
+    }
+}
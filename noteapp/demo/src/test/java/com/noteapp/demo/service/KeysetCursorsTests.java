@@ -0,0 +1,45 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.exception.InvalidCursorException;
+import com.noteapp.demo.exception.InvalidLimitException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorsTests {
+
+    @Test
+    void cursorsRoundTrip() {
+        LocalDate date = LocalDate.of(2025, 4, 1);
+
+        assertThat(KeysetCursors.decodeDateId(KeysetCursors.encode(date, 42L)))
+                .isEqualTo(new KeysetCursors.DateId(date, 42L));
+        assertThat(KeysetCursors.decodeId(KeysetCursors.encode(42L))).isEqualTo(42L);
+    }
+
+    @Test
+    void malformedCursorsAreClientErrors() {
+        // base64url dışı karakter, eksik parça, sayı olmayan id
+        assertThatThrownBy(() -> KeysetCursors.decodeId("not base64!")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursors.decodeDateId(encoded("2025-04-01"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursors.decodeDateId(encoded("2025-13-01|1"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursors.decodeId(encoded("abc"))).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void nonPositiveLimitIsRejectedAndLargeLimitIsCapped() {
+        assertThatThrownBy(() -> KeysetCursors.limit(0)).isInstanceOf(InvalidLimitException.class);
+        assertThatThrownBy(() -> KeysetCursors.limit(-5)).isInstanceOf(InvalidLimitException.class);
+        assertThat(KeysetCursors.limit(1)).isEqualTo(1);
+        assertThat(KeysetCursors.limit(KeysetCursors.MAX_LIMIT + 1)).isEqualTo(KeysetCursors.MAX_LIMIT);
+    }
+
+    private static String encoded(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
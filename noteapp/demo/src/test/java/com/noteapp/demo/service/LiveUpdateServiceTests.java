@@ -0,0 +1,123 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.exception.TooManyLiveConnectionsException;
+import com.noteapp.demo.model.User;
+import com.noteapp.demo.repository.GoalRepository;
+import com.noteapp.demo.security.CurrentUserResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LiveUpdateServiceTests {
+
+    private static final Long USER = 1L;
+    private static final int MAX_CONNECTIONS = 5;
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final CurrentUserResolver currentUserResolver = mock(CurrentUserResolver.class);
+    private final GoalRepository goalRepository = mock(GoalRepository.class);
+    private final PrefixSumIndex prefixSumIndex = mock(PrefixSumIndex.class);
+    private final LiveUpdateService service = new LiveUpdateService(currentUserResolver, goalRepository,
+            prefixSumIndex, mock(ActiveDayIndex.class),
+            256, MAX_CONNECTIONS, HEARTBEAT, Duration.ofMinutes(30));
+
+    @AfterEach
+    void closeConnections() {
+        service.closeAll();
+    }
+
+    @Test
+    void concurrentSubscribesNeverExceedTheCap() throws Exception {
+        when(currentUserResolver.currentUser()).thenReturn(User.builder().id(USER).build());
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> attempts = IntStream.range(0, 40)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        await(start);
+                        try {
+                            service.subscribe();
+                            accepted.incrementAndGet();
+                        } catch (TooManyLiveConnectionsException e) {
+                            assertThat(e.getRetryAfter()).isEqualTo(HEARTBEAT);
+                        }
+                    }, executor))
+                    .toList();
+            start.countDown();
+            CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(accepted).hasValue(MAX_CONNECTIONS);
+    }
+
+    @Test
+    void updatesAreReadOnTheConnectionThreadNotTheCommittingThread() throws Exception {
+        when(currentUserResolver.currentUser()).thenReturn(User.builder().id(USER).build());
+        LocalDate today = LocalDate.now();
+        AtomicReference<Thread> readBy = new AtomicReference<>();
+        CountDownLatch read = new CountDownLatch(1);
+        when(prefixSumIndex.sum(eq(USER), isNull(), any(), any())).thenAnswer(invocation -> {
+            readBy.set(Thread.currentThread());
+            read.countDown();
+            return 1.0;
+        });
+        service.subscribe();
+
+        service.onActivityChanged(new ActivityChangedEvent(USER, List.of(ActivityDelta.added(today, 5L, 1.0))));
+
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(readBy.get()).isNotSameAs(Thread.currentThread());
+        assertThat(readBy.get().isVirtual()).isTrue();
+    }
+
+    @Test
+    void affectedGoalsAreReadWithOneQueryPerFlush() throws Exception {
+        when(currentUserResolver.currentUser()).thenReturn(User.builder().id(USER).build());
+        LocalDate today = LocalDate.now();
+        CountDownLatch queried = new CountDownLatch(1);
+        when(goalRepository.findProgressCovering(any(), any(), any(), any())).thenAnswer(invocation -> {
+            queried.countDown();
+            return List.of();
+        });
+        service.subscribe();
+
+        service.onActivityChanged(new ActivityChangedEvent(USER, List.of(
+                ActivityDelta.added(today, 5L, 1.0),
+                ActivityDelta.added(today.minusDays(2), 6L, 2.0))));
+
+        assertThat(queried.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(goalRepository).findProgressCovering(USER, today.minusDays(2), today, Set.of(5L, 6L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.noteapp.demo.service;
+
+import com.noteapp.demo.event.ActivityChangedEvent;
+import com.noteapp.demo.event.ActivityDelta;
+import com.noteapp.demo.model.Activity;
+import com.noteapp.demo.model.DailyTotal;
+import com.noteapp.demo.model.DailyTotalId;
+import com.noteapp.demo.repository.DailyTotalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrefixSumIndexTests {
+
+    private static final Long USER = 1L;
+    private static final Long CATEGORY = 5L;
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 10);
+
+    private final DailyTotalRepository repository = mock(DailyTotalRepository.class);
+
+    @Test
+    void datesOutsideTheSupportedWindowDoNotGrowTheArrays() {
+        PrefixSumIndex index = new PrefixSumIndex(repository, 5_000_000, Duration.ofHours(1), Duration.ofMinutes(5));
+        when(repository.findAllByUserId(USER)).thenReturn(List.of(
+                total(DAY, 2.0), total(LocalDate.of(-999_999_999, 1, 1), 1.0), total(LocalDate.MAX, 1.0)));
+
+        assertThat(index.sum(USER, null, LocalDate.MIN, LocalDate.MAX)).isEqualTo(2.0);
+
+        index.onActivityChanged(new ActivityChangedEvent(USER, List.of(
+                ActivityDelta.added(LocalDate.of(1, 1, 1), CATEGORY, 3.0),
+                ActivityDelta.added(DAY, CATEGORY, 1.0))));
+        assertThat(index.sum(USER, CATEGORY, Activity.MIN_DATE, Activity.MAX_DATE)).isEqualTo(3.0);
+    }
+
+    @Test
+    void entryIsRebuiltAfterMaxAgeEvenWhenReadContinuously() {
+        // Başka düğümdeki yazmalar olay getirmez; yeniden yükleme bunları görür
+        PrefixSumIndex index = new PrefixSumIndex(repository, 5_000_000, Duration.ofHours(1), Duration.ZERO);
+        when(repository.findAllByUserId(USER)).thenReturn(List.of(total(DAY, 2.0)));
+        assertThat(index.sum(USER, null, DAY, DAY)).isEqualTo(2.0);
+
+        when(repository.findAllByUserId(USER)).thenReturn(List.of(total(DAY, 4.0)));
+        assertThat(index.sum(USER, null, DAY, DAY)).isEqualTo(4.0);
+        verify(repository, times(2)).findAllByUserId(USER);
+    }
+
+    private static DailyTotal total(LocalDate date, double hours) {
+        return DailyTotal.builder()
+                .id(new DailyTotalId(USER, date, CATEGORY))
+                .hours(hours)
+                .activityCount(1)
+                .build();
+    }
+}